@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Runs the users-mix load test against the MVC application and the WebFlux/R2DBC variant in reactive/.
+# Requires a running PostgreSQL, both jars built (mvn package and mvn -f reactive/pom.xml package) and k6 on the PATH.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mkdir -p loadtest/results
+
+run_variant() {
+    local name=$1 jar=$2 base_url=$3
+    shift 3
+
+    java -jar "$jar" "$@" > "loadtest/results/$name.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -s -o /dev/null "$base_url/api/auth/login"; do sleep 1; done
+    k6 run -e BASE_URL="$base_url" -e MODE="$name" loadtest/users-mix.js
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+# The reactive variant has no rate limiter or lockout, so the MVC one runs without them too
+run_variant mvc "$(ls target/user-management-*.jar | head -n 1)" http://localhost:9090 --spring.profiles.active=loadtest
+run_variant reactive "$(ls reactive/target/user-management-reactive-*.jar | head -n 1)" http://localhost:9091
+
+echo "Summaries written to loadtest/results/mvc.json and loadtest/results/reactive.json"
@@ -0,0 +1,125 @@
+#!/usr/bin/env bash
+# Compares point-lookup and bulk-scan latency on an unpartitioned users table and on the hash-partitioned layout of
+# db/partitioned/V8_1__partition_users.sql (16 partitions on id plus the username/email lookup tables).
+# Both tables are loaded with ROWS synthetic users (default 50M) into the bench_plain and bench_partitioned schemas;
+# SETUP=false reuses a previous load. Requires psql and pgbench on the PATH; connection settings come from the usual
+# PGHOST/PGPORT/PGUSER/PGPASSWORD/PGDATABASE variables.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+export PGDATABASE=${PGDATABASE:-user-management}
+ROWS=${ROWS:-50000000}
+DURATION=${DURATION:-30}
+CLIENTS=${CLIENTS:-8}
+SETUP=${SETUP:-true}
+WORK=loadtest/results/partitioning
+mkdir -p "$WORK"
+RESULTS=loadtest/results/partitioning.csv
+
+load_schema() {
+    local schema=$1 partitioned=$2
+    local partition_clause=""
+    [ "$partitioned" = true ] && partition_clause="PARTITION BY HASH (id)"
+    psql -v ON_ERROR_STOP=1 -q <<SQL
+DROP SCHEMA IF EXISTS $schema CASCADE;
+CREATE SCHEMA $schema;
+SET search_path = $schema;
+CREATE TABLE users (
+    id BIGINT NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    role_name VARCHAR(255),
+    token_version INTEGER DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+) $partition_clause;
+DO \$\$
+BEGIN
+    IF $partitioned THEN
+        FOR i IN 0..15 LOOP
+            EXECUTE format('CREATE TABLE users_p%s PARTITION OF users FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                           lpad(i::text, 2, '0'), i);
+        END LOOP;
+    END IF;
+END \$\$;
+INSERT INTO users
+SELECT g, 'user' || g, '{bcrypt}benchmark', 'user' || g || '@example.com',
+       now() - make_interval(days => (g % 3650)::int), now(), 'ROLE_USER', 0, 0
+FROM generate_series(1, $ROWS) g;
+ALTER TABLE users ADD PRIMARY KEY (id);
+SQL
+    if [ "$partitioned" = true ]; then
+        psql -v ON_ERROR_STOP=1 -q <<SQL
+SET search_path = $schema;
+CREATE INDEX idx_username ON users (username);
+CREATE INDEX idx_email ON users (email);
+CREATE TABLE user_usernames (username VARCHAR(255) NOT NULL, user_id BIGINT NOT NULL,
+                             CONSTRAINT uk_users_username PRIMARY KEY (username) INCLUDE (user_id));
+CREATE TABLE user_emails (email VARCHAR(255) NOT NULL, user_id BIGINT NOT NULL,
+                          CONSTRAINT uk_users_email PRIMARY KEY (email) INCLUDE (user_id));
+INSERT INTO user_usernames SELECT username, id FROM users;
+INSERT INTO user_emails SELECT email, id FROM users;
+VACUUM ANALYZE users, user_usernames, user_emails;
+SQL
+    else
+        psql -v ON_ERROR_STOP=1 -q <<SQL
+SET search_path = $schema;
+ALTER TABLE users ADD CONSTRAINT uk_users_username UNIQUE (username);
+ALTER TABLE users ADD CONSTRAINT uk_users_email UNIQUE (email);
+VACUUM ANALYZE users;
+SQL
+    fi
+}
+
+write_scripts() {
+    cat > "$WORK/point-id.sql" <<'SQL'
+\set id random(1, :rows)
+SELECT * FROM users WHERE id = :id;
+SQL
+    cat > "$WORK/point-username.sql" <<'SQL'
+\set id random(1, :rows)
+SELECT * FROM users WHERE username = 'user' || :id;
+SQL
+    # The query UserRepository.findByUsernameViaLookup issues on the partitioned layout
+    cat > "$WORK/point-username-lookup.sql" <<'SQL'
+\set id random(1, :rows)
+SELECT u.* FROM users u WHERE u.id = (SELECT l.user_id FROM user_usernames l WHERE l.username = 'user' || :id);
+SQL
+    # Keyset page as served by GET /api/users?limit=1000
+    cat > "$WORK/scan-page.sql" <<'SQL'
+\set id random(1, :rows)
+SELECT id, username, email FROM users WHERE id > :id ORDER BY id LIMIT 1000;
+SQL
+    cat > "$WORK/scan-full.sql" <<'SQL'
+SELECT count(*) FROM users WHERE created_at < now() - interval '5 years';
+SQL
+}
+
+# Runs one pgbench script against a schema and appends the average latency in ms
+bench() {
+    local schema=$1 name=$2 script=$3
+    shift 3
+    local latency
+    latency=$(PGOPTIONS="-c search_path=$schema" pgbench -n -D rows="$ROWS" -f "$WORK/$script" "$@" \
+        | awk '/latency average/ {print $4}')
+    echo "$schema,$name,$latency" | tee -a "$RESULTS"
+}
+
+if [ "$SETUP" = true ]; then
+    load_schema bench_plain false
+    load_schema bench_partitioned true
+fi
+write_scripts
+
+echo "schema,query,latency_avg_ms" > "$RESULTS"
+for schema in bench_plain bench_partitioned; do
+    bench "$schema" point-id point-id.sql -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION"
+    bench "$schema" point-username point-username.sql -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION"
+    bench "$schema" scan-page scan-page.sql -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION"
+    bench "$schema" scan-full scan-full.sql -c 1 -t 3
+done
+bench bench_partitioned point-username-lookup point-username-lookup.sql -c "$CLIENTS" -j "$CLIENTS" -T "$DURATION"
+
+echo "Results written to $RESULTS"
@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Measures time-to-first-request of the application started as a plain jar, with AOT, with a CDS archive, with both,
+# and as a native executable when one has been built (mvn -P native native:compile).
+# Requires a running, already migrated PostgreSQL (see application.properties) and a jar built with mvn -P aot package.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/user-management-*.jar | grep -v original | head -n 1)
+NATIVE=target/user-management
+BASE_URL=${BASE_URL:-http://localhost:9090}
+RUNS=${RUNS:-5}
+EXTRACTED=target/startup-benchmark
+mkdir -p loadtest/results
+RESULTS=loadtest/results/startup.csv
+
+# Unpack the jar and record a CDS archive for each AOT setting, the same way the Dockerfile does
+rm -rf "$EXTRACTED"
+java -Djarmode=tools -jar "$JAR" extract --destination "$EXTRACTED" > /dev/null
+APP_JAR="$EXTRACTED/$(basename "$JAR")"
+for aot in false true; do
+    java -Dspring.aot.enabled=$aot -XX:ArchiveClassesAtExit="$EXTRACTED/aot-$aot.jsa" -Dspring.context.exit=onRefresh \
+        -Dspring.flyway.enabled=false -Dadmin.seed.enabled=false -jar "$APP_JAR" > /dev/null 2>&1
+done
+
+now_millis() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Starts the command, polls until the first HTTP response and prints the elapsed milliseconds
+time_to_first_request() {
+    local log=$1
+    shift
+    local start
+    start=$(now_millis)
+    "$@" --admin.seed.enabled=false > "$log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE_URL/actuator/health")" != "000" ]; do sleep 0.01; done
+    local elapsed=$(( $(now_millis) - start ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+    echo "$elapsed"
+}
+
+run_mode() {
+    local mode=$1
+    shift
+    local times=()
+    for run in $(seq 1 "$RUNS"); do
+        times+=("$(time_to_first_request "loadtest/results/startup-$mode.log" "$@")")
+    done
+    local median
+    median=$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")
+    echo "$mode,$median,$(IFS=' '; echo "${times[*]}")" | tee -a "$RESULTS"
+}
+
+echo "mode,median_ms,runs_ms" > "$RESULTS"
+run_mode jar java -jar "$JAR"
+run_mode aot java -Dspring.aot.enabled=true -jar "$APP_JAR"
+run_mode cds java -XX:SharedArchiveFile="$EXTRACTED/aot-false.jsa" -jar "$APP_JAR"
+run_mode aot-cds java -Dspring.aot.enabled=true -XX:SharedArchiveFile="$EXTRACTED/aot-true.jsa" -jar "$APP_JAR"
+if [ -x "$NATIVE" ]; then
+    run_mode native "$NATIVE"
+fi
+
+echo "Results written to $RESULTS"
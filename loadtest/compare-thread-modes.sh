@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Runs the users-mix load test against the application on platform threads and on virtual threads.
+# Requires a running PostgreSQL (see application.properties), a built jar in target/ and k6 on the PATH.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR=$(ls target/user-management-*.jar | head -n 1)
+BASE_URL=${BASE_URL:-http://localhost:9090}
+mkdir -p loadtest/results
+
+run_mode() {
+    local mode=$1
+    local profile_args=(--spring.profiles.active=loadtest)
+    if [ "$mode" = "virtual" ]; then
+        profile_args=(--spring.profiles.active=loadtest,virtual)
+    fi
+
+    java -jar "$JAR" "${profile_args[@]}" > "loadtest/results/$mode.log" 2>&1 &
+    local pid=$!
+    trap "kill $pid 2>/dev/null || true" EXIT
+
+    until curl -s -o /dev/null "$BASE_URL/api/auth/login"; do sleep 1; done
+    k6 run -e BASE_URL="$BASE_URL" -e MODE="$mode" loadtest/users-mix.js
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    trap - EXIT
+}
+
+run_mode platform
+run_mode virtual
+
+echo "Summaries written to loadtest/results/platform.json and loadtest/results/virtual.json"
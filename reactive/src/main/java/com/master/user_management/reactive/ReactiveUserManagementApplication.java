@@ -0,0 +1,13 @@
+package com.master.user_management.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveUserManagementApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveUserManagementApplication.class, args);
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.master.user_management.reactive.controller;
+
+import com.master.user_management.reactive.dto.request.UserLoginDTO;
+import com.master.user_management.reactive.dto.response.AuthResponse;
+import com.master.user_management.reactive.exception.HashingCapacityExceededException;
+import com.master.user_management.reactive.jwt.JwtTokenProvider;
+import com.master.user_management.reactive.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/auth")
+@Slf4j
+public class AuthController {
+
+    private final ReactiveUserService userService;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public AuthController(ReactiveUserService userService, JwtTokenProvider jwtTokenProvider) {
+        this.userService = userService;
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> authenticateUser(@RequestBody @Valid UserLoginDTO userLoginDTO) {
+        return userService.authenticateUser(userLoginDTO.getUsername(), userLoginDTO.getPassword())
+                .map(user -> {
+                    List<GrantedAuthority> authorities = user.getRoleName() != null
+                            ? List.of(new SimpleGrantedAuthority(user.getRoleName().name()))
+                            : List.of();
+                    String token = jwtTokenProvider.createToken(user.getUsername(), authorities, user.getTokenVersion());
+                    return ResponseEntity.ok(new AuthResponse("success", null, token));
+                })
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Authentication failed for user: {}", userLoginDTO.getUsername());
+                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(new AuthResponse("error", "Invalid username or password.", null));
+                }))
+                .onErrorResume(HashingCapacityExceededException.class, e -> {
+                    log.warn("Authentication rejected for user: {}. {}", userLoginDTO.getUsername(), e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                            .body(new AuthResponse("error", "The service is busy. Please try again later.", null)));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error occurred during authentication", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new AuthResponse("error", "An error occurred during authentication.", null)));
+                });
+    }
+}
@@ -0,0 +1,144 @@
+package com.master.user_management.reactive.controller;
+
+import com.master.user_management.reactive.dto.UserDTO;
+import com.master.user_management.reactive.dto.request.UserRegistrationDTO;
+import com.master.user_management.reactive.dto.request.UserUpdateDTO;
+import com.master.user_management.reactive.dto.response.ApiResponse;
+import com.master.user_management.reactive.entity.RoleName;
+import com.master.user_management.reactive.exception.HashingCapacityExceededException;
+import com.master.user_management.reactive.exception.ResourceNotFoundException;
+import com.master.user_management.reactive.service.ReactiveUserService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import static com.master.user_management.reactive.util.Constants.ERROR;
+import static com.master.user_management.reactive.util.Constants.SUCCESS;
+
+@RestController
+@RequestMapping("/api/users")
+@Slf4j
+public class UserController {
+
+    private final ReactiveUserService userService;
+
+    public UserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<ApiResponse<UserDTO>>> registerUser(@RequestBody @Valid UserRegistrationDTO userRegistrationDTO) {
+        if (userRegistrationDTO.getRoleName() != RoleName.ROLE_ADMIN) {
+            return register(userRegistrationDTO);
+        }
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(UserController::isAdmin)
+                .flatMap(admin -> register(userRegistrationDTO))
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Registration of admin user {} rejected: caller is not an admin", userRegistrationDTO.getUsername());
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                            .body(new ApiResponse<>(ERROR, "Only administrators can create administrator accounts", null));
+                }));
+    }
+
+    private Mono<ResponseEntity<ApiResponse<UserDTO>>> register(UserRegistrationDTO userRegistrationDTO) {
+        return userService.registerUser(userRegistrationDTO)
+                .map(user -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(new ApiResponse<>(SUCCESS, "User registered successfully", new UserDTO(user))))
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.error("Validation error during registration: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(ERROR, e.getMessage(), null)));
+                })
+                .onErrorResume(HashingCapacityExceededException.class, e -> {
+                    log.warn("Registration rejected: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                            .body(new ApiResponse<>(ERROR, "The service is busy. Please try again later.", null)));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error occurred during registration: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(ERROR, "User registration failed", null)));
+                });
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<ApiResponse<Page<UserDTO>>>> getAllUsers(Pageable pageable) {
+        return userService.findAll(pageable)
+                .map(users -> ResponseEntity.ok(new ApiResponse<>(SUCCESS, "Users retrieved successfully", users)))
+                .onErrorResume(e -> {
+                    log.error("Error occurred while fetching users: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(ERROR, "Failed to fetch users", null)));
+                });
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<UserDTO>>> getUserById(@PathVariable Long id) {
+        return userService.findUserById(id)
+                .map(user -> ResponseEntity.ok(new ApiResponse<>(SUCCESS, "User retrieved successfully", new UserDTO(user))))
+                .onErrorResume(ResourceNotFoundException.class, e -> {
+                    log.warn("User with ID: {} not found", id);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(ERROR, "User not found", null)));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error occurred while fetching user with ID: {}", id, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(ERROR, "Failed to fetch user", null)));
+                });
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<UserDTO>>> updateUser(@PathVariable Long id, @RequestBody @Valid UserUpdateDTO userUpdateDTO) {
+        return userService.updateUser(id, userUpdateDTO)
+                .map(user -> ResponseEntity.ok(new ApiResponse<>(SUCCESS, "User updated successfully", new UserDTO(user))))
+                .onErrorResume(ResourceNotFoundException.class, e -> {
+                    log.warn("User with ID: {} not found", id);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(ERROR, "User not found", null)));
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.error("Validation error during update: {}", e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ApiResponse<>(ERROR, e.getMessage(), null)));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error occurred while updating user with ID: {}", id, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new ApiResponse<>(ERROR, "User update failed", null)));
+                });
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Mono<ResponseEntity<ApiResponse<String>>> deleteUser(@PathVariable Long id) {
+        return userService.deleteUserById(id)
+                .thenReturn(ResponseEntity.ok(new ApiResponse<>(SUCCESS, "User deleted successfully", "User with ID: " + id + " has been deleted.")))
+                .onErrorResume(ResourceNotFoundException.class, e -> {
+                    log.warn("User with ID: {} not found. Deletion aborted.", id);
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ApiResponse<>(ERROR, "User not found", "User with ID: " + id + " not found.")));
+                })
+                .onErrorResume(e -> {
+                    log.error("An error occurred while deleting user with ID: {}", id, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(new ApiResponse<>(ERROR, "Failed to delete user", "An error occurred while attempting to delete the user.")));
+                });
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null
+                && AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains(RoleName.ROLE_ADMIN.name());
+    }
+}
@@ -0,0 +1,20 @@
+package com.master.user_management.reactive.dto;
+
+import com.master.user_management.reactive.entity.UserRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class UserDTO {
+
+    private Long id;
+    private String username;
+    private String email;
+
+    public UserDTO(UserRow user) {
+        this.id = user.getId();
+        this.username = user.getUsername();
+        this.email = user.getEmail();
+    }
+}
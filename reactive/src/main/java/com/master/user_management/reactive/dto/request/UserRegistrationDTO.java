@@ -0,0 +1,27 @@
+package com.master.user_management.reactive.dto.request;
+
+import com.master.user_management.reactive.entity.RoleName;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class UserRegistrationDTO {
+
+    @NotNull
+    @Size(min = 3, max = 50)
+    private String username;
+
+    @NotNull
+    @Size(min = 3, max = 100)
+    private String password;
+
+    @NotNull
+    @Email
+    @Size(max = 100)
+    private String email;
+
+    @NotNull
+    private RoleName roleName;
+}
@@ -0,0 +1,15 @@
+package com.master.user_management.reactive.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthResponse {
+
+    private String status;
+    private String errorMessage;
+    private String token;
+}
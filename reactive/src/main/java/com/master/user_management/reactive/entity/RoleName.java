@@ -0,0 +1,6 @@
+package com.master.user_management.reactive.entity;
+
+public enum RoleName {
+    ROLE_USER,
+    ROLE_ADMIN
+}
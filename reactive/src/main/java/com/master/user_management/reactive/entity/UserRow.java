@@ -0,0 +1,41 @@
+package com.master.user_management.reactive.entity;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2DBC mapping of the {@code users} table owned by the MVC application. The schema itself is
+ * managed there; this variant only reads and writes rows.
+ */
+@Data
+@Table("users")
+public class UserRow {
+
+    @Id
+    private Long id;
+    private String username;
+    private String password;
+    private String email;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private RoleName roleName;
+    private int tokenVersion;
+    @Version
+    private Long version;
+
+    public UserRow() {
+    }
+
+    public UserRow(String username, String password, String email, LocalDateTime createdAt, LocalDateTime updatedAt, RoleName roleName) {
+        this.username = username;
+        this.password = password;
+        this.email = email;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.roleName = roleName;
+    }
+}
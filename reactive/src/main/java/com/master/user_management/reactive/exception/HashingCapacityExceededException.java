@@ -0,0 +1,7 @@
+package com.master.user_management.reactive.exception;
+
+public class HashingCapacityExceededException extends RuntimeException {
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
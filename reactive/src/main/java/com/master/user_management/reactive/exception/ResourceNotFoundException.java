@@ -0,0 +1,7 @@
+package com.master.user_management.reactive.exception;
+
+public class ResourceNotFoundException extends RuntimeException {
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,66 @@
+package com.master.user_management.reactive.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Slf4j
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenVersionCache tokenVersionCache;
+
+    public JwtAuthenticationWebFilter(JwtTokenProvider jwtTokenProvider, TokenVersionCache tokenVersionCache) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenVersionCache = tokenVersionCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = resolveToken(exchange);
+        if (token == null) {
+            return chain.filter(exchange);
+        }
+
+        Claims claims;
+        try {
+            // HMAC verification is cheap and CPU-bound, so it runs inline on the event loop
+            claims = jwtTokenProvider.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+
+        Integer tokenVersion = claims.get("ver", Integer.class);
+        return tokenVersionCache.currentVersion(claims.getSubject())
+                .filter(current -> current.equals(tokenVersion))
+                .flatMap(current -> {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            claims.getSubject(), null, jwtTokenProvider.getAuthorities(claims)
+                    );
+                    return chain.filter(exchange)
+                            .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication))
+                            .thenReturn(true);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    log.debug("Rejected JWT of {}: token version {} is outdated", claims.getSubject(), tokenVersion);
+                    return chain.filter(exchange).thenReturn(false);
+                }))
+                .then();
+    }
+
+    private String resolveToken(ServerWebExchange exchange) {
+        String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
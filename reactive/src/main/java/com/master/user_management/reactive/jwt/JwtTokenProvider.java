@@ -0,0 +1,70 @@
+package com.master.user_management.reactive.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+
+@Component
+public class JwtTokenProvider {
+
+    private final Key key;
+    private final String keyId;
+    private final String audience;
+    private final long expirationTime;
+    private final JwtParser parser;
+
+    // The key is shared with the MVC application, so the audience keeps either from accepting the other's tokens,
+    // whose revocation it cannot see
+    public JwtTokenProvider(@Value("${jwt.secret}") String secretKey,
+                            @Value("${jwt.key-id:default}") String keyId,
+                            @Value("${jwt.audience:user-management-reactive}") String audience,
+                            @Value("${jwt.expiration-time}") long expirationTime) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.keyId = keyId;
+        this.audience = audience;
+        this.expirationTime = expirationTime;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).requireAudience(audience).build();
+    }
+
+    public String createToken(String username, List<GrantedAuthority> authorities, int tokenVersion) {
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keyId)
+                .setSubject(username)
+                .setAudience(audience)
+                .claim("roles", authorities.stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList())
+                .claim("ver", tokenVersion)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
+        @SuppressWarnings("unchecked")
+        List<String> roles = (List<String>) claims.get("roles");
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+}
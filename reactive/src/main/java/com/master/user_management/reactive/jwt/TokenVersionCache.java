@@ -0,0 +1,36 @@
+package com.master.user_management.reactive.jwt;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.master.user_management.reactive.repository.ReactiveUserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Current token version per username, read from the users table and kept briefly, so a role change made by either
+ * application invalidates older tokens here within the cache TTL.
+ */
+@Component
+public class TokenVersionCache {
+
+    private final ReactiveUserRepository userRepository;
+    private final AsyncCache<String, Integer> versions;
+
+    public TokenVersionCache(ReactiveUserRepository userRepository,
+                             @Value("${jwt.token-version.cache-ttl:PT5S}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    // Empty when the user no longer exists
+    public Mono<Integer> currentVersion(String username) {
+        return Mono.fromFuture(() -> versions.get(username,
+                (key, executor) -> userRepository.findTokenVersionByUsername(key).toFuture()));
+    }
+}
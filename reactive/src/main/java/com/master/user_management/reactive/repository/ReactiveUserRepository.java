@@ -0,0 +1,16 @@
+package com.master.user_management.reactive.repository;
+
+import com.master.user_management.reactive.entity.UserRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends R2dbcRepository<UserRow, Long> {
+    Mono<UserRow> findByUsername(String username);
+    Flux<UserRow> findAllBy(Pageable pageable);
+
+    @Query("SELECT token_version FROM users WHERE username = :username")
+    Mono<Integer> findTokenVersionByUsername(String username);
+}
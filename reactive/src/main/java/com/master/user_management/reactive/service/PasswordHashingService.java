@@ -0,0 +1,55 @@
+package com.master.user_management.reactive.service;
+
+import com.master.user_management.reactive.exception.HashingCapacityExceededException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler hashingScheduler;
+    private volatile String dummyHash;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  @Value("${security.password.hashing.threads:0}") int threads,
+                                  @Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        // BCrypt must never run on the event loop; the bounded scheduler rejects work once its queue is full
+        this.hashingScheduler = Schedulers.newBoundedElastic(poolSize, queueCapacity, "password-hash");
+    }
+
+    public Mono<String> encode(String rawPassword) {
+        return offload(Mono.fromCallable(() -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public Mono<Boolean> matches(String rawPassword, String encodedPassword) {
+        return offload(Mono.fromCallable(() -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    public Mono<Void> dummyMatch(String rawPassword) {
+        String hash = dummyHash;
+        Mono<String> dummy = hash != null ? Mono.just(hash) : encode("dummy-password-for-timing-equalisation")
+                .doOnNext(encoded -> dummyHash = encoded);
+        return dummy.flatMap(encoded -> matches(rawPassword, encoded)).then();
+    }
+
+    private <T> Mono<T> offload(Mono<T> task) {
+        return task.subscribeOn(hashingScheduler)
+                .onErrorMap(RejectedExecutionException.class,
+                        e -> new HashingCapacityExceededException("Password hashing capacity exceeded"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        hashingScheduler.dispose();
+    }
+}
@@ -0,0 +1,124 @@
+package com.master.user_management.reactive.service;
+
+import com.master.user_management.reactive.dto.UserDTO;
+import com.master.user_management.reactive.dto.request.UserRegistrationDTO;
+import com.master.user_management.reactive.dto.request.UserUpdateDTO;
+import com.master.user_management.reactive.entity.ChangeType;
+import com.master.user_management.reactive.entity.UserRow;
+import com.master.user_management.reactive.exception.ResourceNotFoundException;
+import com.master.user_management.reactive.repository.ReactiveUserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Service
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final UserChangeRecorder userChangeRecorder;
+    private final UserChangeNotifier userChangeNotifier;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveUserService(ReactiveUserRepository userRepository, PasswordHashingService passwordHashingService,
+                               UserChangeRecorder userChangeRecorder, UserChangeNotifier userChangeNotifier,
+                               ReactiveTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.userChangeRecorder = userChangeRecorder;
+        this.userChangeNotifier = userChangeNotifier;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    public Mono<UserRow> registerUser(UserRegistrationDTO userRegistrationDTO) {
+        log.info("Registering new user with username: {}", userRegistrationDTO.getUsername());
+        return passwordHashingService.encode(userRegistrationDTO.getPassword())
+                .flatMap(hashedPassword -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    // The write, its outbox record and its notification commit together; hashing stays outside the transaction
+                    return userRepository.save(new UserRow(userRegistrationDTO.getUsername(), hashedPassword,
+                                    userRegistrationDTO.getEmail(), now, now, userRegistrationDTO.getRoleName()))
+                            .flatMap(user -> userChangeRecorder.record(ChangeType.CREATED, user, null)
+                                    .then(userChangeNotifier.created(user.getId(), user.getUsername(), user.getEmail()))
+                                    .thenReturn(user))
+                            .as(transactionalOperator::transactional);
+                })
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveUserService::duplicateOrFailure)
+                .doOnNext(user -> log.info("User registered successfully with ID: {}", user.getId()));
+    }
+
+    public Mono<UserRow> authenticateUser(String username, String password) {
+        return userRepository.findByUsername(username)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(user -> {
+                    if (user.isEmpty()) {
+                        // Keep the response time of an unknown username indistinguishable from a wrong password
+                        return passwordHashingService.dummyMatch(password).then(Mono.empty());
+                    }
+                    return passwordHashingService.matches(password, user.get().getPassword())
+                            .flatMap(matches -> matches ? Mono.just(user.get()) : Mono.<UserRow>empty());
+                });
+    }
+
+    public Mono<UserRow> findUserById(Long id) {
+        return userRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("User not found with id " + id)));
+    }
+
+    public Mono<Page<UserDTO>> findAll(Pageable pageable) {
+        return Mono.zip(userRepository.findAllBy(pageable).map(UserDTO::new).collectList(), userRepository.count())
+                .map(result -> new PageImpl<>(result.getT1(), pageable, result.getT2()));
+    }
+
+    public Mono<UserRow> updateUser(Long id, UserUpdateDTO userUpdateDTO) {
+        log.info("Updating user with ID: {}", id);
+        return findUserById(id)
+                .flatMap(user -> {
+                    String previousUsername = user.getUsername();
+                    String previousEmail = user.getEmail();
+                    user.setUsername(userUpdateDTO.getUsername());
+                    user.setEmail(userUpdateDTO.getEmail());
+                    user.setUpdatedAt(LocalDateTime.now());
+                    // Tokens issued for the old name must not authorise whoever registers it next
+                    boolean renamed = !previousUsername.equals(user.getUsername());
+                    return userRepository.save(user)
+                            .flatMap(saved -> userChangeRecorder.record(ChangeType.UPDATED, saved, renamed ? previousUsername : null)
+                                    .then(userChangeNotifier.changed(saved.getId(), previousUsername, previousEmail, renamed,
+                                            saved.getUsername(), saved.getEmail()))
+                                    .thenReturn(saved));
+                })
+                .as(transactionalOperator::transactional)
+                .onErrorMap(DataIntegrityViolationException.class, ReactiveUserService::duplicateOrFailure);
+    }
+
+    public Mono<Void> deleteUserById(Long id) {
+        log.info("Deleting user with ID: {}", id);
+        return findUserById(id)
+                .flatMap(user -> userRepository.delete(user)
+                        .then(userChangeRecorder.record(ChangeType.DELETED, user, null))
+                        .then(userChangeNotifier.changed(user.getId(), user.getUsername(), user.getEmail(), true, null, null)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private static Throwable duplicateOrFailure(DataIntegrityViolationException e) {
+        String detail = e.getMostSpecificCause().getMessage();
+        if (detail != null && (detail.contains("uk_users_username") || detail.contains("(username)"))) {
+            return new IllegalArgumentException("Username already exists");
+        }
+        if (detail != null && (detail.contains("uk_users_email") || detail.contains("(email)"))) {
+            return new IllegalArgumentException("Email already exists");
+        }
+        return e;
+    }
+}
@@ -0,0 +1,51 @@
+package com.master.user_management.reactive.service;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Sends the MVC application's user cache invalidation for changes made here, so its replicas evict the user, update
+ * their username filter and type-ahead index, and reject tokens for a retired username. The notification goes out on
+ * the caller's transactional connection, so PostgreSQL only delivers it once the change has committed. The payload
+ * must stay in the format of the MVC {@code UserCacheEvent}.
+ */
+@Component
+public class UserChangeNotifier {
+
+    private static final String CHANNEL = "user_cache_invalidation";
+    private static final char SEPARATOR = '|';
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final DatabaseClient databaseClient;
+
+    public UserChangeNotifier(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Void> created(Long id, String username, String email) {
+        return send(id, null, null, false, username, email);
+    }
+
+    // username and email are null for a delete; retired means the previous username no longer belongs to the user
+    public Mono<Void> changed(Long id, String previousUsername, String previousEmail, boolean retired, String username, String email) {
+        return send(id, previousUsername, previousEmail, retired, username, email);
+    }
+
+    // Token versions are never changed here, so that field stays empty
+    private Mono<Void> send(Long id, String previousUsername, String previousEmail, boolean retired, String username, String email) {
+        String payload = nodeId + SEPARATOR + (id != null ? id : "") + SEPARATOR
+                + SEPARATOR + (retired ? "1" : "0") + SEPARATOR + escape(username) + SEPARATOR + escape(email)
+                + SEPARATOR + escape(previousEmail) + SEPARATOR + escape(previousUsername);
+        return databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                .bind("channel", CHANNEL)
+                .bind("payload", payload)
+                .then();
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("%", "%25").replace("|", "%7C");
+    }
+}
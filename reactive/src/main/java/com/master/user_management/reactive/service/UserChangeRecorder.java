@@ -0,0 +1,41 @@
+package com.master.user_management.reactive.service;
+
+import com.master.user_management.reactive.entity.ChangeType;
+import com.master.user_management.reactive.entity.UserRow;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Writes the MVC application's outbox record for a change made here, so its relay and {@code /api/users/changes}
+ * see every mutation of the shared users table. Must run in the caller's transaction, so a record exists exactly
+ * when the mutation committed.
+ */
+@Component
+public class UserChangeRecorder {
+
+    private static final String INSERT_CHANGE = """
+            INSERT INTO user_changes (user_id, change_type, username, email, previous_username, occurred_at)
+            VALUES (:userId, :changeType, :username, :email, :previousUsername, :occurredAt)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    public UserChangeRecorder(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    // previousUsername is only set when the change renamed the user
+    public Mono<Void> record(ChangeType changeType, UserRow user, String previousUsername) {
+        DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(INSERT_CHANGE)
+                .bind("userId", user.getId())
+                .bind("changeType", changeType.name())
+                .bind("username", user.getUsername())
+                .bind("email", user.getEmail())
+                .bind("occurredAt", LocalDateTime.now());
+        insert = previousUsername != null ? insert.bind("previousUsername", previousUsername) : insert.bindNull("previousUsername", String.class);
+        return insert.then();
+    }
+}
@@ -0,0 +1,6 @@
+package com.master.user_management.reactive.util;
+
+public class Constants {
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+}
@@ -0,0 +1,13 @@
+package com.master.user_management.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ReactiveUserManagementApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.master.user_management.benchmark;
+
+import com.master.user_management.cache.InJvmCacheInvalidationBroadcaster;
+import com.master.user_management.jwt.JwtClaimsCache;
+import com.master.user_management.jwt.JwtTokenProvider;
+import com.master.user_management.jwt.RevokedTokenStore;
+import com.master.user_management.jwt.TokenVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    static final String JWT_SECRET = "mysecretkey12233333333333jshdjhsdD3232323233";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtClaimsCache jwtClaimsCache(int maxSize) {
+        return new JwtClaimsCache(new SimpleMeterRegistry(), maxSize);
+    }
+
+    static RevokedTokenStore revokedTokenStore() {
+        return new RevokedTokenStore(new SimpleMeterRegistry(), Duration.ofMinutes(1));
+    }
+
+    // Not loaded from a database; the benchmarks only exercise the lookup of an untracked user
+    static TokenVersionRegistry tokenVersionRegistry() {
+        return new TokenVersionRegistry(new InJvmCacheInvalidationBroadcaster(), null, null, 3_600_000L);
+    }
+
+    static JwtTokenProvider jwtTokenProvider(JwtClaimsCache jwtClaimsCache) {
+        JwtTokenProvider provider = new JwtTokenProvider(jwtClaimsCache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "secretKey", JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "keyId", "default");
+        ReflectionTestUtils.setField(provider, "previousKeys", List.of());
+        ReflectionTestUtils.setField(provider, "unversionedKeyId", "default");
+        ReflectionTestUtils.setField(provider, "expirationTime", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
@@ -0,0 +1,65 @@
+package com.master.user_management.benchmark;
+
+import com.master.user_management.jwt.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private List<GrantedAuthority> authorities;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenProvider = BenchmarkFixtures.jwtTokenProvider(BenchmarkFixtures.jwtClaimsCache(0));
+        authorities = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+        token = jwtTokenProvider.createToken("admin", authorities);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return jwtTokenProvider.createToken("admin", authorities);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtTokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> getAuthorities() {
+        return jwtTokenProvider.getAuthorities(token);
+    }
+
+    // How every read path parsed tokens before the parser was built once: a new parser and key per call
+    @Benchmark
+    public Claims parseWithParserPerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(BenchmarkFixtures.JWT_SECRET)
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,65 @@
+package com.master.user_management.benchmark;
+
+import com.master.user_management.jwt.JwtClaimsCache;
+import com.master.user_management.jwt.JwtTokenFilter;
+import com.master.user_management.jwt.JwtTokenProvider;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenFilterBenchmark {
+
+    // 0 disables the verified-claims cache, so every request parses and verifies the token
+    @Param({"0", "10000"})
+    public int claimsCacheSize;
+
+    private JwtTokenFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        // One cache shared by the provider and the filter, as the application wires it
+        JwtClaimsCache jwtClaimsCache = BenchmarkFixtures.jwtClaimsCache(claimsCacheSize);
+        JwtTokenProvider jwtTokenProvider = BenchmarkFixtures.jwtTokenProvider(jwtClaimsCache);
+        filter = new JwtTokenFilter(jwtTokenProvider, jwtClaimsCache, BenchmarkFixtures.revokedTokenStore(),
+                BenchmarkFixtures.tokenVersionRegistry());
+        authorization = "Bearer " + jwtTokenProvider.createToken("admin", List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
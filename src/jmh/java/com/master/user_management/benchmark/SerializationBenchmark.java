@@ -0,0 +1,82 @@
+package com.master.user_management.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.master.user_management.dto.UserDTO;
+import com.master.user_management.dto.response.ApiResponse;
+import com.master.user_management.entity.RoleName;
+import com.master.user_management.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.master.user_management.util.Constants.SUCCESS;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "20", "100"})
+    public int users;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper cborMapper;
+    private ObjectMapper smileMapper;
+    private List<User> entities;
+    private ApiResponse<List<UserDTO>> response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        smileMapper = Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            User user = new User("user" + i, "{bcrypt}$2a$10$abcdefghijklmnopqrstuv", "user" + i + "@example.com", now, now, RoleName.ROLE_USER);
+            user.setId((long) i);
+            entities.add(user);
+        }
+        response = new ApiResponse<>(SUCCESS, "Users retrieved successfully", mapToDTOs());
+    }
+
+    @Benchmark
+    public List<UserDTO> mapToDTOs() {
+        return entities.stream().map(UserDTO::new).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponseCbor() throws JsonProcessingException {
+        return cborMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponseSmile() throws JsonProcessingException {
+        return smileMapper.writeValueAsBytes(response);
+    }
+}
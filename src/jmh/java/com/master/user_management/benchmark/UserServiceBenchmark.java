@@ -0,0 +1,144 @@
+package com.master.user_management.benchmark;
+
+import com.master.user_management.UserManagementApplication;
+import com.master.user_management.dto.UserDTO;
+import com.master.user_management.dto.request.UserRegistrationDTO;
+import com.master.user_management.entity.RoleName;
+import com.master.user_management.entity.User;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.service.SearchMode;
+import com.master.user_management.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the service layer against an in-memory H2 database in PostgreSQL mode, so numbers are
+ * comparable between runs rather than with production. Fuzzy search needs pg_trgm and is not covered.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    private static final int SEEDED_USERS = 1000;
+    private static final String PASSWORD = "benchmark-password";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UserRepository userRepository;
+    private Long existingId;
+
+    @Setup
+    public void setUp() {
+        // Command-line arguments, unlike builder properties, take precedence over application.properties
+        context = new SpringApplicationBuilder(UserManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.flyway.enabled=false",
+                        "--datasource.replica.enabled=false",
+                        "--outbox.relay.enabled=false",
+                        "--scheduling.enabled=false",
+                        "--admin.seed.enabled=false",
+                        "--ratelimit.store=local",
+                        "--cache.users.invalidation=local",
+                        "--security.password.bcrypt-strength=4",
+                        "--search.type-ahead.enabled=true");
+        userService = context.getBean(UserService.class);
+        userRepository = context.getBean(UserRepository.class);
+        for (int i = 0; i < SEEDED_USERS; i++) {
+            User user = userService.registerUser(registration("seed" + i));
+            if (existingId == null) {
+                existingId = user.getId();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User findUserById() {
+        return userService.findUserById(existingId);
+    }
+
+    @Benchmark
+    public Page<UserDTO> findAllPage() {
+        return userService.findAll(PageRequest.of(3, 20));
+    }
+
+    @Benchmark
+    public List<UserDTO> searchByPrefix() {
+        return userService.searchUsers("seed12", SearchMode.PREFIX, 20);
+    }
+
+    @Benchmark
+    public Optional<User> authenticateUser() {
+        return userService.authenticateUser("seed42", PASSWORD);
+    }
+
+    @Benchmark
+    public Optional<User> authenticateUnknownUser() {
+        return userService.authenticateUser("nobody", PASSWORD);
+    }
+
+    // Concurrent sign-ups: every call registers a fresh username, so the unique checks and hashing all run
+    @Benchmark
+    @Threads(8)
+    public User registerUser() {
+        return userService.registerUser(registration("signup" + sequence.incrementAndGet()));
+    }
+
+    // How registration ran before the unique violation was mapped: both existence checks, then the insert
+    @Benchmark
+    @Threads(8)
+    public User registerUserWithExistsChecks() {
+        UserRegistrationDTO dto = registration("signup" + sequence.incrementAndGet());
+        if (userRepository.existsByUsername(dto.getUsername()) || userRepository.existsByEmail(dto.getEmail())) {
+            throw new IllegalStateException("Benchmark usernames are unique");
+        }
+        return userService.registerUser(dto);
+    }
+
+    private static UserRegistrationDTO registration(String username) {
+        UserRegistrationDTO dto = new UserRegistrationDTO();
+        dto.setUsername(username);
+        dto.setPassword(PASSWORD);
+        dto.setEmail(username + "@example.com");
+        dto.setRoleName(RoleName.ROLE_USER);
+        return dto;
+    }
+}
@@ -1,9 +1,14 @@
 package com.master.user_management;
 
 import org.springframework.boot.SpringApplication;
+import com.master.user_management.config.NativeHints;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableAsync;
 
 @SpringBootApplication
+@EnableAsync
+@ImportRuntimeHints(NativeHints.class)
 public class UserManagementApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,19 @@
+package com.master.user_management.cache;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Carries user cache invalidations to the other replicas. Implementations must only deliver an
+ * event once the transaction that published it has committed.
+ */
+public interface CacheInvalidationBroadcaster {
+
+    void publish(UserCacheEvent event);
+
+    default void publishAll(Collection<UserCacheEvent> events) {
+        events.forEach(this::publish);
+    }
+
+    void subscribe(Consumer<UserCacheEvent> listener);
+}
@@ -0,0 +1,40 @@
+package com.master.user_management.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "cache.users.invalidation", havingValue = "local", matchIfMissing = true)
+public class InJvmCacheInvalidationBroadcaster implements CacheInvalidationBroadcaster {
+
+    private final List<Consumer<UserCacheEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(UserCacheEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(event);
+                }
+            });
+        } else {
+            dispatch(event);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<UserCacheEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private void dispatch(UserCacheEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+}
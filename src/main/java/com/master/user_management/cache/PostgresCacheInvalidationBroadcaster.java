@@ -0,0 +1,127 @@
+package com.master.user_management.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts invalidations with PostgreSQL LISTEN/NOTIFY. Notifications are sent on the caller's
+ * transactional connection, so PostgreSQL only delivers them once the change has committed. The
+ * listener holds its own connection outside the Hikari pool.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cache.users.invalidation", havingValue = "postgres")
+public class PostgresCacheInvalidationBroadcaster implements CacheInvalidationBroadcaster {
+
+    private static final String CHANNEL = "user_cache_invalidation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource listenerDataSource;
+    private final List<Consumer<UserCacheEvent>> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+    private Thread listenerThread;
+
+    public PostgresCacheInvalidationBroadcaster(DataSource dataSource, DataSourceProperties dataSourceProperties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.listenerDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(SimpleDriverDataSource.class)
+                .build();
+    }
+
+    @PostConstruct
+    void start() {
+        listenerThread = Thread.ofPlatform().name("user-cache-listener").daemon(true).start(this::listen);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        listenerThread.interrupt();
+    }
+
+    @Override
+    public void publish(UserCacheEvent event) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", resultSet -> {
+        }, CHANNEL, event.toPayload());
+    }
+
+    // One statement for a whole import chunk instead of a round trip per user
+    @Override
+    public void publishAll(Collection<UserCacheEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query("SELECT pg_notify(?, payload) FROM unnest(?) AS payload", resultSet -> {
+        }, CHANNEL, events.stream().map(UserCacheEvent::toPayload).toArray(String[]::new));
+    }
+
+    @Override
+    public void subscribe(Consumer<UserCacheEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = listenerDataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                log.info("Listening for user cache invalidations on channel {}", CHANNEL);
+                if (reconnecting) {
+                    // Notifications sent while disconnected are lost, so drop everything cached meanwhile
+                    UserCacheEvent invalidateAll = new UserCacheEvent(null, null, null);
+                    listeners.forEach(listener -> listener.accept(invalidateAll));
+                }
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("User cache invalidation listener lost its connection, reconnecting: {}", e.getMessage());
+                reconnecting = true;
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        try {
+            UserCacheEvent event = UserCacheEvent.fromPayload(payload);
+            listeners.forEach(listener -> listener.accept(event));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring user cache invalidation {}: {}", payload, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.master.user_management.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.master.user_management.entity.RoleName;
+import com.master.user_management.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of the user lookups. Entries are immutable snapshots and every
+ * read hands out a fresh {@link User}, so callers can modify what they get without touching the
+ * cache. Invalidations are applied locally right away, again after commit, and broadcast to the
+ * other replicas. A load that overlaps an invalidation of its key is not cached, so a row read
+ * just before a change commits cannot outlive the eviction.
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    private static final int INVALIDATION_STRIPES = 1024;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    // Bumped on every eviction of a key hashing to the stripe; loads compare it before and after they put
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+    private final Cache<Long, CachedUser> usersById;
+    private final Cache<String, Long> idsByUsername;
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    public UserCache(CacheInvalidationBroadcaster broadcaster, MeterRegistry meterRegistry,
+                     @Value("${cache.users.max-size:100000}") long maxSize,
+                     @Value("${cache.users.ttl:PT5M}") Duration ttl) {
+        this.broadcaster = broadcaster;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "users.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "users.idByUsername");
+        broadcaster.subscribe(this::onRemoteInvalidation);
+    }
+
+    public Optional<User> getById(Long id, Function<Long, Optional<User>> loader) {
+        CachedUser cached = usersById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached.toUser());
+        }
+        long stamp = invalidations.get(stripe(id));
+        Optional<User> loaded = loader.apply(id);
+        loaded.ifPresent(user -> putUnlessInvalidated(user, stripe(id), stamp));
+        return loaded;
+    }
+
+    public Optional<User> getByUsername(String username, Function<String, Optional<User>> loader) {
+        Long id = idsByUsername.getIfPresent(username);
+        if (id != null) {
+            CachedUser cached = usersById.getIfPresent(id);
+            if (cached != null && cached.username().equals(username)) {
+                return Optional.of(cached.toUser());
+            }
+            // The user was renamed, deleted or evicted, so the mapping can no longer be trusted
+            idsByUsername.invalidate(username);
+        }
+        long stamp = invalidations.get(stripe(username));
+        Optional<User> loaded = loader.apply(username);
+        loaded.ifPresent(user -> putUnlessInvalidated(user, stripe(username), stamp));
+        return loaded;
+    }
+
+    public void invalidate(Long id, String username) {
+        invalidate(id, username, null);
+    }
+
+    public void invalidate(Long id, String username, Integer tokenVersion) {
+        evictNowAndAfterCommit(id, username);
+        broadcaster.publish(new UserCacheEvent(nodeId, id, username, tokenVersion));
+    }
+
+    // Nothing is cached under a new user yet; the event lets other replicas learn the name
+    public void created(Long id, String username, String email) {
+        broadcaster.publish(new UserCacheEvent(nodeId, id, null, null, null, false, username, email));
+    }
+
+    // For users inserted with plain JDBC, where the generated ids are not at hand
+    public void createdAll(Map<String, String> emailsByUsername) {
+        broadcaster.publishAll(emailsByUsername.entrySet().stream()
+                .map(user -> new UserCacheEvent(nodeId, null, null, null, null, false, user.getKey(), user.getValue()))
+                .toList());
+    }
+
+    /**
+     * Evicts a user whose row was updated or deleted. {@code previousUsername} and {@code previousEmail} are what it had
+     * before the change, {@code username} and {@code email} what it has now, both null for a delete. {@code retired}
+     * is set when the previous username no longer belongs to the user.
+     */
+    public void changed(Long id, String previousUsername, String previousEmail, boolean retired, String username, String email) {
+        evictNowAndAfterCommit(id, previousUsername);
+        broadcaster.publish(new UserCacheEvent(nodeId, id, previousUsername, previousEmail, null, retired, username, email));
+    }
+
+    private void evictNowAndAfterCommit(Long id, String previousUsername) {
+        evict(id, previousUsername);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A concurrent read may have reloaded the old row before the change committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, previousUsername);
+                }
+            });
+        }
+    }
+
+    /**
+     * Caches the loaded user unless its key was invalidated since {@code stamp} was read. The check is repeated after
+     * the put, so an eviction racing with it either sees the entry and removes it or is detected and undone here.
+     */
+    private void putUnlessInvalidated(User user, int stripe, long stamp) {
+        if (invalidations.get(stripe) != stamp) {
+            return;
+        }
+        CachedUser entry = CachedUser.of(user);
+        usersById.asMap().merge(user.getId(), entry, (current, loaded) ->
+                current.version() != null && loaded.version() != null && current.version() > loaded.version() ? current : loaded);
+        idsByUsername.put(user.getUsername(), user.getId());
+        if (invalidations.get(stripe) != stamp) {
+            usersById.asMap().remove(user.getId(), entry);
+            idsByUsername.asMap().remove(user.getUsername(), user.getId());
+        }
+    }
+
+    private void evict(Long id, String username) {
+        if (id != null) {
+            invalidations.incrementAndGet(stripe(id));
+            CachedUser cached = usersById.getIfPresent(id);
+            usersById.invalidate(id);
+            if (cached != null) {
+                invalidations.incrementAndGet(stripe(cached.username()));
+                idsByUsername.invalidate(cached.username());
+            }
+        }
+        if (username != null) {
+            invalidations.incrementAndGet(stripe(username));
+            idsByUsername.invalidate(username);
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (INVALIDATION_STRIPES - 1);
+    }
+
+    private void onRemoteInvalidation(UserCacheEvent event) {
+        if (nodeId.equals(event.originNodeId())) {
+            return;
+        }
+        if (event.isClearAll()) {
+            log.info("Clearing the user cache after a missed invalidation window");
+            for (int i = 0; i < INVALIDATION_STRIPES; i++) {
+                invalidations.incrementAndGet(i);
+            }
+            usersById.invalidateAll();
+            idsByUsername.invalidateAll();
+            return;
+        }
+        evict(event.userId(), event.username());
+    }
+
+    private record CachedUser(Long id, String username, String password, String email,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, RoleName roleName, int tokenVersion, Long version) {
+
+        static CachedUser of(User user) {
+            return new CachedUser(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(),
+                    user.getCreatedAt(), user.getUpdatedAt(), user.getRoleName(), user.getTokenVersion(), user.getVersion());
+        }
+
+        User toUser() {
+            User user = new User(username, password, email, createdAt, updatedAt, roleName);
+            user.setId(id);
+            user.setTokenVersion(tokenVersion);
+            user.setVersion(version);
+            return user;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.master.user_management.cache;
+
+/**
+ * {@code username} and {@code email} are what a rename or a delete leaves behind; only {@code username} is set when
+ * nothing but the cached row changed. {@code tokenVersion} is only set when the user's token version changed along
+ * with the invalidation. {@code retired} means {@code username} stopped belonging to the user through a rename or a
+ * delete. {@code currentUsername} and {@code currentEmail} are what the user has after a registration,
+ * import or update, so other replicas can learn them. An event without a user id or any username asks every replica
+ * to drop what it may have missed.
+ */
+public record UserCacheEvent(String originNodeId, Long userId, String username, String email, Integer tokenVersion,
+                             boolean retired, String currentUsername, String currentEmail) {
+
+    private static final char SEPARATOR = '|';
+    private static final int FIELDS = 8;
+
+    public UserCacheEvent(String originNodeId, Long userId, String username) {
+        this(originNodeId, userId, username, null, null, false, null, null);
+    }
+
+    public UserCacheEvent(String originNodeId, Long userId, String username, Integer tokenVersion) {
+        this(originNodeId, userId, username, null, tokenVersion, false, null, null);
+    }
+
+    public boolean isClearAll() {
+        return userId == null && username == null && currentUsername == null;
+    }
+
+    // Names are escaped, so every field boundary is a separator
+    public String toPayload() {
+        return originNodeId + SEPARATOR + (userId != null ? userId : "") + SEPARATOR + (tokenVersion != null ? tokenVersion : "")
+                + SEPARATOR + (retired ? "1" : "0") + SEPARATOR + escape(currentUsername) + SEPARATOR + escape(currentEmail)
+                + SEPARATOR + escape(email) + SEPARATOR + escape(username);
+    }
+
+    public static UserCacheEvent fromPayload(String payload) {
+        String[] fields = payload.split("\\|", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Malformed cache invalidation payload: " + payload);
+        }
+        return new UserCacheEvent(fields[0], parseLong(fields[1]), unescape(fields[7]), unescape(fields[6]), parseInt(fields[2]),
+                "1".equals(fields[3]), unescape(fields[4]), unescape(fields[5]));
+    }
+
+    private static Long parseLong(String value) {
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    private static Integer parseInt(String value) {
+        return value.isEmpty() ? null : Integer.valueOf(value);
+    }
+
+    private static String escape(String value) {
+        return value == null ? "" : value.replace("%", "%25").replace("|", "%7C");
+    }
+
+    private static String unescape(String value) {
+        return value.isEmpty() ? null : value.replace("%7C", "|").replace("%25", "%");
+    }
+}
@@ -1,45 +1,55 @@
 package com.master.user_management.config;
 
-import com.master.user_management.entity.User;
+import com.master.user_management.dto.request.UserRegistrationDTO;
 import com.master.user_management.repository.UserRepository;
 import com.master.user_management.service.UserService;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
-import java.util.Optional;
-
 import static com.master.user_management.entity.RoleName.ROLE_ADMIN;
 
+/**
+ * Seeds the admin account off the boot path: it runs asynchronously once the application is ready, so neither the
+ * lookup nor the password hash delays the first request.
+ */
 @Component
 @Slf4j
-public class DatabaseInitializer implements CommandLineRunner {
+@ConditionalOnProperty(name = "admin.seed.enabled", havingValue = "true", matchIfMissing = true)
+public class DatabaseInitializer {
 
     private final UserService userService;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
 
-    public DatabaseInitializer(UserService userService, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DatabaseInitializer(UserService userService, UserRepository userRepository) {
         this.userService = userService;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
     }
 
-    @Override
-    public void run(String... args) {
-        Optional<User> existingSuperUser = userService.findUserByUsername("admin");
-        log.info("Checking if a super user with username 'admin' exists.");
-        if (existingSuperUser.isEmpty()) {
-            log.info("Super user with username 'admin' does not exist. Creating a new super user.");
-            LocalDateTime now = LocalDateTime.now();
-            User user = new User("admin", passwordEncoder.encode("admin"), "admin@admin.com", now, now, ROLE_ADMIN);
-            userRepository.save(user);
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedAdmin() {
+        if (userRepository.findByUsername("admin").isPresent()) {
+            log.debug("Super user with username 'admin' already exists.");
+            return;
+        }
+        log.info("Super user with username 'admin' does not exist. Creating a new super user.");
+        UserRegistrationDTO admin = new UserRegistrationDTO();
+        admin.setUsername("admin");
+        admin.setPassword("admin");
+        admin.setEmail("admin@admin.com");
+        admin.setRoleName(ROLE_ADMIN);
+        try {
+            // Registering keeps the username filter, type-ahead index and change feed in step
+            userService.registerUser(admin);
             log.info("Super user 'admin' created successfully");
-        } else {
-            log.info("Super user with username 'admin' already exists.");
+        } catch (IllegalArgumentException e) {
+            log.debug("Super user 'admin' was created concurrently: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Failed to create super user 'admin'", e);
         }
-
     }
 }
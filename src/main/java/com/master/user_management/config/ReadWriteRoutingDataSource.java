@@ -0,0 +1,113 @@
+package com.master.user_management.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Hands out replica connections inside {@code @Transactional(readOnly = true)} and primary connections everywhere
+ * else. Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} so the
+ * connection is fetched after the transaction's read-only flag is bound.
+ * <p>
+ * With a non-zero read-your-writes window, a user whose read-write transaction committed keeps reading from the
+ * primary for that long. A replica that fails to hand out a connection is skipped for {@code retryAfter}, and its
+ * reads go to the primary meanwhile.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Cache<String, Boolean> recentWriters;
+    private final long retryAfterNanos;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter replicaFallbacks;
+    private volatile long replicaRetryAt;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWrites, Duration retryAfter,
+                                      MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder().expireAfterWrite(readYourWrites).build();
+        this.retryAfterNanos = retryAfter.toNanos();
+        this.primaryConnections = routedConnections(meterRegistry, "primary");
+        this.replicaConnections = routedConnections(meterRegistry, "replica");
+        this.replicaFallbacks = routedConnections(meterRegistry, "fallback");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            stickAfterCommit();
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        if (replicaUnavailable() || recentlyWrote()) {
+            primaryConnections.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaConnections.increment();
+            return connection;
+        } catch (SQLException e) {
+            replicaRetryAt = System.nanoTime() + retryAfterNanos;
+            log.warn("Replica unavailable, routing reads to the primary for {} ms: {}", retryAfterNanos / 1_000_000, e.getMessage());
+            replicaFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Routed connections use the credentials of the primary and replica pools");
+    }
+
+    private boolean replicaUnavailable() {
+        long retryAt = replicaRetryAt;
+        return retryAt != 0 && System.nanoTime() - retryAt < 0;
+    }
+
+    private boolean recentlyWrote() {
+        String user = recentWriters != null ? currentUser() : null;
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    private void stickAfterCommit() {
+        String user = recentWriters != null ? currentUser() : null;
+        if (user == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(user, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+
+    private static Counter routedConnections(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routed.connections")
+                .description("Connections handed out by the read/write routing data source")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,15 @@
+package com.master.user_management.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the periodic relay and purge jobs. Setting {@code scheduling.enabled=false} keeps them from touching the
+ * database, e.g. in benchmarks or on a node that should only serve requests.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableScheduling
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class SchedulingConfig {
+}
@@ -1,35 +1,58 @@
 package com.master.user_management.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.master.user_management.jwt.JwtClaimsCache;
 import com.master.user_management.jwt.JwtTokenProvider;
 import com.master.user_management.jwt.JwtTokenFilter;
+import com.master.user_management.jwt.RevokedTokenStore;
+import com.master.user_management.jwt.TokenVersionRegistry;
+import com.master.user_management.ratelimit.RateLimitFilter;
+import com.master.user_management.ratelimit.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
+@EnableMethodSecurity
 public class SecurityConfig {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final JwtClaimsCache jwtClaimsCache;
+    private final RevokedTokenStore revokedTokenStore;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    public SecurityConfig(JwtTokenProvider jwtTokenProvider) {
+    public SecurityConfig(JwtTokenProvider jwtTokenProvider, JwtClaimsCache jwtClaimsCache,
+                          RevokedTokenStore revokedTokenStore, TokenVersionRegistry tokenVersionRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.jwtClaimsCache = jwtClaimsCache;
+        this.revokedTokenStore = revokedTokenStore;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int bcryptStrength) {
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt and get re-encoded on the next login
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimiter rateLimiter, ObjectMapper objectMapper) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .sessionManagement(session -> session
@@ -38,9 +61,14 @@ public class SecurityConfig {
 
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health/**", "/actuator/prometheus").permitAll()
+                        .requestMatchers("/actuator/sqllogging/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/jwtkeys/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtTokenFilter(jwtTokenProvider), UsernamePasswordAuthenticationFilter.class)
+                // Registered first so over-limit requests are rejected before any token parsing
+                .addFilterBefore(new RateLimitFilter(rateLimiter, objectMapper), UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(new JwtTokenFilter(jwtTokenProvider, jwtClaimsCache, revokedTokenStore, tokenVersionRegistry), UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
 }
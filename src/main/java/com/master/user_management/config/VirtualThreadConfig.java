@@ -0,0 +1,87 @@
+package com.master.user_management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true}. Spring Boot then serves Tomcat
+ * requests and @Async work on virtual threads, which makes the Hikari pool the real concurrency
+ * limit; this configuration makes that limit explicit and reports virtual threads that pin their
+ * carrier.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor() {
+        // Wraps each Hikari pool with its own size, so a primary and a replica pool are limited separately
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource) {
+                    int maxConnections = dataSource.getMaximumPoolSize();
+                    log.info("Limiting concurrent connection use of {} to {} virtual threads", beanName, maxConnections);
+                    return new ConnectionLimitingDataSource(dataSource, maxConnections, dataSource.getConnectionTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "diagnostics.virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    PinnedThreadMonitor pinnedThreadMonitor(@Value("${diagnostics.virtual-threads.pinning.threshold:PT0.02S}") Duration threshold) {
+        return new PinnedThreadMonitor(threshold);
+    }
+
+    /**
+     * Streams the JFR {@code jdk.VirtualThreadPinned} event, which fires when a virtual thread
+     * blocks inside a synchronized block or a native frame for longer than the threshold.
+     */
+    static class PinnedThreadMonitor {
+
+        private final RecordingStream recordingStream = new RecordingStream();
+
+        PinnedThreadMonitor(Duration threshold) {
+            recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+            recordingStream.onEvent("jdk.VirtualThreadPinned", PinnedThreadMonitor::logPinnedThread);
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        void start() {
+            recordingStream.startAsync();
+        }
+
+        @PreDestroy
+        void stop() {
+            recordingStream.close();
+        }
+
+        private static void logPinnedThread(RecordedEvent event) {
+            String stackTrace = event.getStackTrace() == null ? "<no stack trace>" : event.getStackTrace().getFrames().stream()
+                    .limit(12)
+                    .map(RecordedFrame::getMethod)
+                    .map(method -> method.getType().getName() + "." + method.getName())
+                    .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+            log.warn("Virtual thread pinned its carrier for {} ms{}", event.getDuration().toMillis(), stackTrace);
+        }
+    }
+}
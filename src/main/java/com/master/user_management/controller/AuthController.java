@@ -1,14 +1,26 @@
 package com.master.user_management.controller;
 
+import com.master.user_management.dto.request.RefreshTokenDTO;
 import com.master.user_management.dto.request.UserLoginDTO;
 import com.master.user_management.dto.response.AuthResponse;
 import com.master.user_management.entity.User;
+import com.master.user_management.exception.HashingCapacityExceededException;
+import com.master.user_management.exception.InvalidTokenException;
 import com.master.user_management.jwt.JwtTokenProvider;
+import com.master.user_management.jwt.RevokedTokenStore;
+import com.master.user_management.security.LoginAttemptService;
+import com.master.user_management.service.RefreshTokenService;
 import com.master.user_management.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -21,34 +33,99 @@ public class AuthController {
 
     private final UserService userService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenService refreshTokenService;
+    private final RevokedTokenStore revokedTokenStore;
 
-    public AuthController(UserService userService, JwtTokenProvider jwtTokenProvider) {
+    public AuthController(UserService userService, JwtTokenProvider jwtTokenProvider, LoginAttemptService loginAttemptService,
+                          RefreshTokenService refreshTokenService, RevokedTokenStore revokedTokenStore) {
         this.userService = userService;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.loginAttemptService = loginAttemptService;
+        this.refreshTokenService = refreshTokenService;
+        this.revokedTokenStore = revokedTokenStore;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> authenticateUser(@RequestBody @Valid UserLoginDTO userLoginDTO) {
+    public ResponseEntity<AuthResponse> authenticateUser(@RequestBody @Valid UserLoginDTO userLoginDTO, HttpServletRequest request) {
         log.info("Authenticating user with username: {}", userLoginDTO.getUsername());
+        String clientIp = request.getRemoteAddr();
+
+        long lockoutSeconds = loginAttemptService.lockoutRemainingSeconds(userLoginDTO.getUsername(), clientIp);
+        if (lockoutSeconds > 0) {
+            log.warn("Authentication blocked for user: {} from {}", userLoginDTO.getUsername(), clientIp);
+            AuthResponse response = new AuthResponse("error", "Too many failed login attempts. Please try again later.", null);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(lockoutSeconds))
+                    .body(response);
+        }
 
         try {
             Optional<User> userOptional = userService.authenticateUser(userLoginDTO.getUsername(), userLoginDTO.getPassword());
 
             if (userOptional.isPresent()) {
                 User user = userOptional.get();
-                String token = jwtTokenProvider.createToken(user.getUsername(), List.of());
-                AuthResponse response = new AuthResponse("success", null, token);
+                AuthResponse response = tokenResponse(user, refreshTokenService.issue(user));
+                loginAttemptService.loginSucceeded(userLoginDTO.getUsername());
                 log.info("Authentication successful for user: {}", userLoginDTO.getUsername());
                 return ResponseEntity.ok(response);
             } else {
                 log.warn("Authentication failed for user: {}", userLoginDTO.getUsername());
+                loginAttemptService.loginFailed(userLoginDTO.getUsername(), clientIp);
                 AuthResponse response = new AuthResponse("error", "Invalid username or password.", null);
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Authentication rejected for user: {}. {}", userLoginDTO.getUsername(), e.getMessage());
+            AuthResponse response = new AuthResponse("error", "The service is busy. Please try again later.", null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
         } catch (Exception e) {
             log.error("Error occurred during authentication", e);
             AuthResponse response = new AuthResponse("error", "An error occurred during authentication.", null);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refreshToken(@RequestBody @Valid RefreshTokenDTO refreshTokenDTO) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshTokenDTO.getRefreshToken());
+            log.info("Access token refreshed for user: {}", rotation.user().getUsername());
+            return ResponseEntity.ok(tokenResponse(rotation.user(), rotation.refreshToken()));
+        } catch (InvalidTokenException e) {
+            log.warn("Token refresh rejected: {}", e.getMessage());
+            AuthResponse response = new AuthResponse("error", e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        } catch (Exception e) {
+            log.error("Error occurred during token refresh", e);
+            AuthResponse response = new AuthResponse("error", "An error occurred during token refresh.", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponse> logout(@RequestBody(required = false) RefreshTokenDTO refreshTokenDTO, HttpServletRequest request) {
+        String accessToken = jwtTokenProvider.resolveToken(request);
+        if (accessToken != null) {
+            try {
+                Claims claims = jwtTokenProvider.parseClaims(accessToken);
+                revokedTokenStore.revoke(claims.getId(), claims.getExpiration());
+                log.info("Access token revoked for user: {}", claims.getSubject());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Ignoring invalid access token on logout: {}", e.getMessage());
+            }
+        }
+        if (refreshTokenDTO != null && refreshTokenDTO.getRefreshToken() != null) {
+            refreshTokenService.revoke(refreshTokenDTO.getRefreshToken());
+        }
+        return ResponseEntity.ok(new AuthResponse("success", null, null));
+    }
+
+    private AuthResponse tokenResponse(User user, String refreshToken) {
+        List<GrantedAuthority> authorities = user.getRoleName() != null
+                ? List.of(new SimpleGrantedAuthority(user.getRoleName().name()))
+                : List.of();
+        String token = jwtTokenProvider.createToken(user.getUsername(), authorities, user.getTokenVersion());
+        return new AuthResponse("success", null, token, refreshToken, jwtTokenProvider.getExpirationTime() / 1000);
+    }
 }
@@ -1,26 +1,60 @@
 package com.master.user_management.controller;
 
 import com.master.user_management.dto.UserDTO;
+import com.master.user_management.dto.request.UserPatchDTO;
 import com.master.user_management.dto.request.UserRegistrationDTO;
+import com.master.user_management.dto.request.UserRoleUpdateDTO;
 import com.master.user_management.dto.request.UserUpdateDTO;
 import com.master.user_management.dto.response.ApiResponse;
+import com.master.user_management.dto.response.BulkImportResult;
+import com.master.user_management.dto.response.CursorPage;
+import com.master.user_management.dto.response.PageResponse;
+import com.master.user_management.dto.response.UserChangeDTO;
+import com.master.user_management.entity.RoleName;
 import com.master.user_management.entity.User;
+import com.master.user_management.exception.HashingCapacityExceededException;
 import com.master.user_management.exception.ResourceNotFoundException;
+import com.master.user_management.service.UserChangeService;
+import com.master.user_management.service.UserExportService;
+import com.master.user_management.service.SearchMode;
+import com.master.user_management.service.UserImportService;
 import com.master.user_management.service.UserService;
+import com.master.user_management.util.CursorCodec;
+import com.master.user_management.util.VersionETag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
 
 import static com.master.user_management.util.Constants.SUCCESS;
 import static com.master.user_management.util.Constants.ERROR;
@@ -30,16 +64,35 @@ import static com.master.user_management.util.Constants.ERROR;
 @Slf4j
 public class UserController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final UserChangeService userChangeService;
+    private final boolean requireIfMatch;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService userExportService, UserImportService userImportService,
+                          UserChangeService userChangeService,
+                          @Value("${api.users.require-if-match:false}") boolean requireIfMatch) {
         this.userService = userService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.userChangeService = userChangeService;
+        this.requireIfMatch = requireIfMatch;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<ApiResponse<UserDTO>> registerUser(@RequestBody @Valid UserRegistrationDTO userRegistrationDTO) {
+    public ResponseEntity<ApiResponse<UserDTO>> registerUser(@RequestBody @Valid UserRegistrationDTO userRegistrationDTO, Authentication authentication) {
         log.info("Registering new user with username: {}", userRegistrationDTO.getUsername());
 
+        if (userRegistrationDTO.getRoleName() == RoleName.ROLE_ADMIN && !isAdmin(authentication)) {
+            log.warn("Registration of admin user {} rejected: caller is not an admin", userRegistrationDTO.getUsername());
+            ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "Only administrators can create administrator accounts", null);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(response);
+        }
+
         try {
             User user = userService.registerUser(userRegistrationDTO);
             log.info("User registered successfully with ID: {}", user.getId());
@@ -52,6 +105,10 @@ public class UserController {
             log.error("Validation error during registration: {}", e.getMessage());
             ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, e.getMessage(), null);
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Registration rejected: {}", e.getMessage());
+            ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "The service is busy. Please try again later.", null);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
         } catch (Exception e) {
             log.error("Error occurred during registration: {}", e.getMessage(), e);
             ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "User registration failed", null);
@@ -59,19 +116,149 @@ public class UserController {
         }
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<ApiResponse<BulkImportResult>> importUsers(HttpServletRequest request) {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        UserImportService.Format format = contentType.isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserImportService.Format.CSV
+                : UserImportService.Format.JSON;
+        log.info("Bulk importing users from {} input", format);
+
+        try {
+            BulkImportResult result = userImportService.importUsers(request.getInputStream(), format);
+            ApiResponse<BulkImportResult> response = new ApiResponse<>(SUCCESS, "Bulk import completed", result);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error during bulk import: {}", e.getMessage());
+            ApiResponse<BulkImportResult> response = new ApiResponse<>(ERROR, e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            log.error("Error occurred during bulk import: {}", e.getMessage(), e);
+            ApiResponse<BulkImportResult> response = new ApiResponse<>(ERROR, "Bulk import failed", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping
-    public ResponseEntity<ApiResponse<Page<UserDTO>>> getAllUsers(Pageable pageable) {
+    public ResponseEntity<ApiResponse<PageResponse<UserDTO>>> getAllUsers(Pageable pageable) {
         try {
-            Page<UserDTO> users = userService.findAll(pageable).map(UserDTO::new);
-            ApiResponse<Page<UserDTO>> response = new ApiResponse<>(SUCCESS, "Users retrieved successfully", users);
+            Page<UserDTO> users = userService.findAll(pageable);
+            ApiResponse<PageResponse<UserDTO>> response = new ApiResponse<>(SUCCESS, "Users retrieved successfully", PageResponse.of(users));
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             log.error("Error occurred while fetching users: {}", e.getMessage(), e);
-            ApiResponse<Page<UserDTO>> response = new ApiResponse<>(ERROR, "Failed to fetch users", null);
+            ApiResponse<PageResponse<UserDTO>> response = new ApiResponse<>(ERROR, "Failed to fetch users", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<ApiResponse<CursorPage<UserDTO>>> getUsersAfter(@RequestParam(required = false) String after,
+                                                                          @RequestParam int limit,
+                                                                          @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            if (limit < 1 || limit > MAX_CURSOR_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+            }
+            long afterId = after != null ? CursorCodec.decode(after) : 0L;
+
+            Slice<UserDTO> slice = userService.findAllAfter(afterId, limit);
+            List<UserDTO> users = slice.getContent();
+            String nextCursor = slice.hasNext() ? CursorCodec.encode(users.get(users.size() - 1).getId()) : null;
+            Long total = includeTotal ? userService.countUsers() : null;
+
+            CursorPage<UserDTO> page = new CursorPage<>(users, nextCursor, slice.hasNext(), total);
+            return ResponseEntity.ok(new ApiResponse<>(SUCCESS, "Users retrieved successfully", page));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid cursor request: {}", e.getMessage());
+            ApiResponse<CursorPage<UserDTO>> response = new ApiResponse<>(ERROR, e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            log.error("Error occurred while fetching users: {}", e.getMessage(), e);
+            ApiResponse<CursorPage<UserDTO>> response = new ApiResponse<>(ERROR, "Failed to fetch users", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    /**
+     * Incremental change feed. Consumers keep the returned {@code nextCursor} (the last sequence seen, or
+     * {@code since} when nothing new was published) and pass it back as {@code since} on the next poll.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<CursorPage<UserChangeDTO>>> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                                             @RequestParam(defaultValue = "500") int limit) {
+        try {
+            if (since < 0) {
+                throw new IllegalArgumentException("since must not be negative");
+            }
+            if (limit < 1 || limit > MAX_CURSOR_PAGE_SIZE) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+            }
+
+            Slice<UserChangeDTO> slice = userChangeService.findChangesSince(since, limit);
+            List<UserChangeDTO> changes = slice.getContent();
+            long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSequence();
+
+            CursorPage<UserChangeDTO> page = new CursorPage<>(changes, Long.toString(last), slice.hasNext(), null);
+            return ResponseEntity.ok(new ApiResponse<>(SUCCESS, "Changes retrieved successfully", page));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid change feed request: {}", e.getMessage());
+            ApiResponse<CursorPage<UserChangeDTO>> response = new ApiResponse<>(ERROR, e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            log.error("Error occurred while fetching user changes: {}", e.getMessage(), e);
+            ApiResponse<CursorPage<UserChangeDTO>> response = new ApiResponse<>(ERROR, "Failed to fetch changes", null);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<UserDTO>>> searchUsers(@RequestParam String q,
+                                                                  @RequestParam(defaultValue = "20") int limit,
+                                                                  @RequestParam(defaultValue = "prefix") String mode) {
+        try {
+            if (q.isBlank()) {
+                throw new IllegalArgumentException("q must not be blank");
+            }
+            if (limit < 1 || limit > MAX_SEARCH_RESULTS) {
+                throw new IllegalArgumentException("limit must be between 1 and " + MAX_SEARCH_RESULTS);
+            }
+            SearchMode searchMode = SearchMode.valueOf(mode.toUpperCase(Locale.ROOT));
+
+            List<UserDTO> users = userService.searchUsers(q.trim(), searchMode, limit);
+            return ResponseEntity.ok(new ApiResponse<>(SUCCESS, "Users retrieved successfully", users));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid search request: {}", e.getMessage());
+            ApiResponse<List<UserDTO>> response = new ApiResponse<>(ERROR, e.getMessage(), null);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            log.error("Error occurred while searching users: {}", e.getMessage(), e);
+            ApiResponse<List<UserDTO>> response = new ApiResponse<>(ERROR, "Failed to search users", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "ndjson") String format) {
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            log.warn("Unsupported export format requested: {}", format);
+            return ResponseEntity.badRequest().build();
+        }
+
+        log.info("Streaming user export as {}", exportFormat);
+        MediaType contentType = exportFormat == UserExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = outputStream -> userExportService.export(outputStream, exportFormat);
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserDTO>> getUserById(@PathVariable Long id) {
         log.info("Fetching user with ID: {}", id);
@@ -79,7 +266,11 @@ public class UserController {
         try {
             User user = userService.findUserById(id);
             ApiResponse<UserDTO> response = new ApiResponse<>(SUCCESS, "User retrieved successfully", new UserDTO(user));
-            return ResponseEntity.ok(response);
+            // Spring compares the ETag with If-None-Match and answers 304 without a body when it matches
+            return ResponseEntity.ok()
+                    .eTag(VersionETag.of(user.getVersion()))
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(response);
         } catch (ResourceNotFoundException e) {
             log.warn("User with ID: {} not found", id);
             ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "User not found", null);
@@ -92,17 +283,37 @@ public class UserController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponse<UserDTO>> updateUser(@PathVariable Long id, @RequestBody @Valid UserUpdateDTO userUpdateDTO) {
+    public ResponseEntity<ApiResponse<UserDTO>> updateUser(@PathVariable Long id, @RequestBody @Valid UserUpdateDTO userUpdateDTO,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("Updating user with ID: {}", id);
+        return conditionalUpdate(id, ifMatch, acceptedVersions -> userService.updateUser(id, userUpdateDTO, acceptedVersions));
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<UserDTO>> patchUser(@PathVariable Long id, @RequestBody @Valid UserPatchDTO userPatchDTO,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Patching user with ID: {}", id);
+        return conditionalUpdate(id, ifMatch, acceptedVersions -> userService.patchUser(id, userPatchDTO, acceptedVersions));
+    }
+
+    private ResponseEntity<ApiResponse<UserDTO>> conditionalUpdate(Long id, String ifMatch, Function<Set<Long>, User> update) {
+        if (ifMatch == null && requireIfMatch) {
+            ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "Updates must send an If-Match header with the user's ETag", null);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).body(response);
+        }
 
         try {
-            User updatedUser = userService.updateUser(id, userUpdateDTO);
+            User updatedUser = update.apply(VersionETag.parseIfMatch(ifMatch));
             ApiResponse<UserDTO> response = new ApiResponse<>(SUCCESS, "User updated successfully", new UserDTO(updatedUser));
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().eTag(VersionETag.of(updatedUser.getVersion())).body(response);
         } catch (ResourceNotFoundException e) {
             log.warn("User with ID: {} not found", id);
             ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "User not found", null);
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Conflicting update of user with ID: {}", id);
+            ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "The user was modified by another request. Fetch it again and retry.", null);
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
         } catch (IllegalArgumentException e) {
             log.error("Validation error during update: {}", e.getMessage());
             ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, e.getMessage(), null);
@@ -114,6 +325,27 @@ public class UserController {
         }
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}/role")
+    public ResponseEntity<ApiResponse<UserDTO>> changeUserRole(@PathVariable Long id, @RequestBody @Valid UserRoleUpdateDTO userRoleUpdateDTO) {
+        log.info("Changing role of user with ID: {} to {}", id, userRoleUpdateDTO.getRoleName());
+
+        try {
+            User updatedUser = userService.changeRole(id, userRoleUpdateDTO.getRoleName());
+            ApiResponse<UserDTO> response = new ApiResponse<>(SUCCESS, "User role updated successfully", new UserDTO(updatedUser));
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            log.warn("User with ID: {} not found", id);
+            ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "User not found", null);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            log.error("Error occurred while changing role of user with ID: {}", id, e);
+            ApiResponse<UserDTO> response = new ApiResponse<>(ERROR, "User role update failed", null);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
     public ResponseEntity<ApiResponse<String>> deleteUser(@PathVariable Long id) {
         log.info("Request received to delete user with ID: {}", id);
@@ -133,4 +365,9 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null
+                && AuthorityUtils.authorityListToSet(authentication.getAuthorities()).contains(RoleName.ROLE_ADMIN.name());
+    }
+}
@@ -0,0 +1,13 @@
+package com.master.user_management.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class RefreshTokenDTO {
+
+    @NotBlank
+    @Size(max = 100)
+    private String refreshToken;
+}
@@ -0,0 +1,19 @@
+package com.master.user_management.dto.request;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * Partial update: {@code null} fields are left unchanged.
+ */
+@Data
+public class UserPatchDTO {
+
+    @Size(min = 3, max = 50)
+    private String username;
+
+    @Email
+    @Size(max = 100)
+    private String email;
+}
@@ -0,0 +1,15 @@
+package com.master.user_management.dto.request;
+
+import com.master.user_management.entity.RoleName;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class UserRoleUpdateDTO {
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private RoleName roleName;
+}
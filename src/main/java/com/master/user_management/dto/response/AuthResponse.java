@@ -1,5 +1,6 @@
 package com.master.user_management.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -12,4 +13,12 @@ public class AuthResponse {
     private String status;
     private String errorMessage;
     private String token;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String refreshToken;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long expiresIn;
+
+    public AuthResponse(String status, String errorMessage, String token) {
+        this(status, errorMessage, token, null, null);
+    }
 }
@@ -0,0 +1,38 @@
+package com.master.user_management.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportResult {
+    private long processed;
+    private long created;
+    private long rejected;
+    private List<ImportRowResult> rejectedRows = new ArrayList<>();
+    // Rejections beyond the row limit are counted in rejected but not listed
+    private long omittedRejectedRows;
+    @JsonIgnore
+    private final int maxRejectedRows;
+
+    public BulkImportResult(int maxRejectedRows) {
+        this.maxRejectedRows = maxRejectedRows;
+    }
+
+    public void created(int count) {
+        processed += count;
+        created += count;
+    }
+
+    public void rejected(ImportRowResult rowResult) {
+        processed++;
+        rejected++;
+        if (rejectedRows.size() < maxRejectedRows) {
+            rejectedRows.add(rowResult);
+        } else {
+            omittedRejectedRows++;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.master.user_management.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ImportRowResult {
+    private long row;
+    private String username;
+    private String status;
+    private String message;
+}
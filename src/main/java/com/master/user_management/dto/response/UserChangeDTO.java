@@ -0,0 +1,25 @@
+package com.master.user_management.dto.response;
+
+import com.master.user_management.entity.ChangeType;
+import com.master.user_management.entity.UserChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class UserChangeDTO {
+
+    private Long sequence;
+    private Long userId;
+    private ChangeType changeType;
+    private String username;
+    private String email;
+    private LocalDateTime occurredAt;
+
+    public UserChangeDTO(UserChange userChange) {
+        this(userChange.getSequence(), userChange.getUserId(), userChange.getChangeType(), userChange.getUsername(),
+                userChange.getEmail(), userChange.getOccurredAt());
+    }
+}
@@ -0,0 +1,7 @@
+package com.master.user_management.entity;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
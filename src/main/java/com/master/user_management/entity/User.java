@@ -1,7 +1,10 @@
 package com.master.user_management.entity;
 
+import com.master.user_management.util.UniqueConstraints;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -12,22 +15,27 @@ import java.util.Set;
         indexes = {
                 @Index(name = "idx_username", columnList = "username"),
                 @Index(name = "idx_email", columnList = "email")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = UniqueConstraints.USERNAME, columnNames = "username"),
+                @UniqueConstraint(name = UniqueConstraints.EMAIL, columnNames = "email")
         }
 )
 @Data
+@DynamicUpdate
 public class User {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String username;
 
     @Column(nullable = false)
     private String password;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -39,6 +47,16 @@ public class User {
     @Enumerated(EnumType.STRING)
     private RoleName roleName;
 
+    // Bumped whenever the role changes; tokens issued for an older version are rejected
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int tokenVersion;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public User() {
     }
 
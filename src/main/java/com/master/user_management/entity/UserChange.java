@@ -0,0 +1,56 @@
+package com.master.user_management.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox record written in the same transaction as the user mutation. {@code sequence} stays null until the relay
+ * publishes the record; it is assigned in publish order, so it only ever grows for committed changes and the
+ * change feed can page by it without skipping late commits.
+ */
+@Entity
+@Table(
+        name = "user_changes",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_changes_sequence", columnNames = "sequence")
+)
+@Data
+public class UserChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long sequence;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ChangeType changeType;
+
+    private String username;
+
+    private String email;
+
+    // Only set when the change renamed the user
+    private String previousUsername;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    private LocalDateTime publishedAt;
+
+    public UserChange() {
+    }
+
+    public UserChange(Long userId, ChangeType changeType, String username, String email, LocalDateTime occurredAt) {
+        this.userId = userId;
+        this.changeType = changeType;
+        this.username = username;
+        this.email = email;
+        this.occurredAt = occurredAt;
+    }
+}
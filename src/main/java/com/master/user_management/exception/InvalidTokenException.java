@@ -0,0 +1,7 @@
+package com.master.user_management.exception;
+
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,113 @@
+package com.master.user_management.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verified claims keyed by the SHA-256 of their token. Each entry expires with its token, and jwt.cache.max-size caps
+ * how many tokens are remembered.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final Cache<String, Entry> entries;
+    private final int maxSize;
+
+    public JwtClaimsCache(MeterRegistry meterRegistry, @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxSize))
+                .expireAfter(new TokenExpiry())
+                // Maintenance is cheap, so run it on the caller instead of handing it to the common pool
+                .executor(Runnable::run)
+                .recordStats()
+                .build();
+        FunctionCounter.builder("jwt.claims.cache.requests", entries, cache -> cache.stats().hitCount())
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("jwt.claims.cache.requests", entries, cache -> cache.stats().missCount())
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("jwt.claims.cache.size", entries, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    public Claims get(String token) {
+        Entry entry = entries.getIfPresent(digest(token));
+        return entry != null ? entry.claims() : null;
+    }
+
+    public void put(String token, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null || maxSize <= 0 || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(digest(token), new Entry(claims, expiration.getTime()));
+    }
+
+    public void invalidate(String token) {
+        entries.invalidate(digest(token));
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long getHits() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMisses() {
+        return entries.stats().missCount();
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record Entry(Claims claims, long expiresAt) {
+    }
+
+    // An entry lives until its token expires; replacing it restarts the clock from the new token's expiry
+    private static class TokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.master.user_management.jwt;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Rotates the JWT signing key at runtime. Keys only live in the memory of the replica that was called, so a rotation
+ * is two rounds over every replica: add the new key everywhere, which only lets it verify, then activate it
+ * everywhere. Activating before every replica has loaded the key gets its tokens rejected by the replicas that have
+ * not. Retire the old key one token lifetime after the last activation, and update jwt.secret, jwt.key-id and
+ * jwt.previous-keys before the next restart, which forgets what was set here. Secrets are never returned.
+ * POST /actuator/jwtkeys {"keyId": "2024-06", "secret": "<base64>"}
+ * POST /actuator/jwtkeys {"keyId": "2024-06", "activate": true}
+ * DELETE /actuator/jwtkeys/default
+ */
+@Component
+@Endpoint(id = "jwtkeys")
+public class JwtKeyEndpoint {
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    public JwtKeyEndpoint(JwtTokenProvider jwtTokenProvider) {
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    @ReadOperation
+    public Map<String, Object> keys() {
+        return Map.of(
+                "currentKeyId", jwtTokenProvider.getCurrentKeyId(),
+                "verificationKeyIds", jwtTokenProvider.getVerificationKeyIds()
+        );
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(String keyId, @Nullable String secret, @Nullable Boolean activate) {
+        try {
+            if (secret != null) {
+                jwtTokenProvider.addVerificationKey(keyId, secret);
+            }
+            if (Boolean.TRUE.equals(activate)) {
+                jwtTokenProvider.activateKey(keyId);
+            }
+        } catch (IllegalArgumentException | JwtException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return keys();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> retire(@Selector String keyId) {
+        try {
+            jwtTokenProvider.retireKey(keyId);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return keys();
+    }
+}
@@ -1,9 +1,12 @@
 package com.master.user_management.jwt;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,22 +16,32 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.List;
 
+@Slf4j
 public class JwtTokenFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
+    private final JwtClaimsCache jwtClaimsCache;
+    private final RevokedTokenStore revokedTokenStore;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
-    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider) {
+    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, JwtClaimsCache jwtClaimsCache,
+                          RevokedTokenStore revokedTokenStore, TokenVersionRegistry tokenVersionRegistry) {
         this.jwtTokenProvider = jwtTokenProvider;
+        this.jwtClaimsCache = jwtClaimsCache;
+        this.revokedTokenStore = revokedTokenStore;
+        this.tokenVersionRegistry = tokenVersionRegistry;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         String token = resolveToken(request);
+        Claims claims = token != null ? resolveClaims(token) : null;
 
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String username = jwtTokenProvider.getUsername(token);
-            List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(token);
+        // Roles come from the token itself; revocation and version checks are in-memory, so no request hits the database
+        if (claims != null && isAccepted(claims)) {
+            String username = claims.getSubject();
+            List<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(claims);
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     username, null, authorities
             );
@@ -39,6 +52,26 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         chain.doFilter(request, response);
     }
 
+    private boolean isAccepted(Claims claims) {
+        return !revokedTokenStore.isRevoked(claims.getId(), claims.getExpiration())
+                && tokenVersionRegistry.isCurrent(claims.getSubject(), jwtTokenProvider.getTokenVersion(claims), claims.getIssuedAt());
+    }
+
+    private Claims resolveClaims(String token) {
+        Claims claims = jwtClaimsCache.get(token);
+        if (claims != null) {
+            return claims;
+        }
+        try {
+            claims = jwtTokenProvider.parseClaims(token);
+            jwtClaimsCache.put(token, claims);
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected JWT: {}", e.getMessage());
+            return null;
+        }
+    }
+
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -1,11 +1,19 @@
 package com.master.user_management.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -17,60 +25,201 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Component
 public class JwtTokenProvider {
 
+    private static final String ROLES_CLAIM = "roles";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
+    @Value("${jwt.key-id:default}")
+    private String keyId;
+
+    @Value("${jwt.previous-keys:}")
+    private List<String> previousKeys;
+
+    // Tokens issued before key ids were introduced carry no kid and were signed with this key
+    @Value("${jwt.unversioned-key-id:${jwt.key-id:default}}")
+    private String unversionedKeyId;
+
     @Value("${jwt.expiration-time}")
     private long expirationTime;
 
+    private final JwtClaimsCache jwtClaimsCache;
+    private final Timer signTimer;
+    private final Timer parseTimer;
+
+    private volatile SigningKeys signingKeys;
+    private JwtParser parser;
+
+    public JwtTokenProvider(JwtClaimsCache jwtClaimsCache, MeterRegistry meterRegistry) {
+        this.jwtClaimsCache = jwtClaimsCache;
+        this.signTimer = jwtTimer(meterRegistry, "sign");
+        this.parseTimer = jwtTimer(meterRegistry, "parse");
+    }
+
+    private static Timer jwtTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("jwt.operation")
+                .description("Time spent signing and verifying JWTs")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        Map<String, Key> verificationKeys = new LinkedHashMap<>();
+        for (String previousKey : previousKeys) {
+            int separator = previousKey.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("jwt.previous-keys entries must be in the form <kid>:<secret>");
+            }
+            verificationKeys.put(previousKey.substring(0, separator).trim(), key(previousKey.substring(separator + 1).trim()));
+        }
+        Key currentKey = key(secretKey);
+        verificationKeys.put(keyId, currentKey);
+        String legacyKeyId = unversionedKeyId == null || unversionedKeyId.isBlank() ? null : unversionedKeyId.trim();
+        this.signingKeys = new SigningKeys(keyId, currentKey, Map.copyOf(verificationKeys), legacyKeyId);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return signingKeys.resolve(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
     public String createToken(String username, List<GrantedAuthority> authorities) {
+        return createToken(username, authorities, 0);
+    }
+
+    public String createToken(String username, List<GrantedAuthority> authorities, int tokenVersion) {
+        return signTimer.record(() -> buildToken(username, authorities, tokenVersion));
+    }
+
+    private String buildToken(String username, List<GrantedAuthority> authorities, int tokenVersion) {
+        SigningKeys keys = signingKeys;
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, keys.currentKeyId())
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
-                .claim("roles", authorities.stream()
+                .claim(ROLES_CLAIM, authorities.stream()
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.toList()))
+                .claim(TOKEN_VERSION_CLAIM, tokenVersion)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationTime))
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(keys.currentKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    /**
+     * Makes {@code newSecret} the signing key and keeps the previous current key for verification
+     * only, so tokens issued before the rotation stay valid until they expire. Only safe on a single
+     * replica; with several, {@link #addVerificationKey} on all of them before {@link #activateKey}.
+     */
+    public synchronized void rotateKey(String newKeyId, String newSecret) {
+        addVerificationKey(newKeyId, newSecret);
+        activateKey(newKeyId);
+    }
+
+    /**
+     * Accepts tokens signed with {@code newSecret} without signing with it yet.
+     */
+    public synchronized void addVerificationKey(String newKeyId, String newSecret) {
+        SigningKeys keys = signingKeys;
+        if (keys.verificationKeys().containsKey(newKeyId)) {
+            throw new IllegalArgumentException("Key id " + newKeyId + " is already in use");
+        }
+        Map<String, Key> verificationKeys = new LinkedHashMap<>(keys.verificationKeys());
+        verificationKeys.put(newKeyId, key(newSecret));
+        this.signingKeys = new SigningKeys(keys.currentKeyId(), keys.currentKey(), Map.copyOf(verificationKeys), keys.unversionedKeyId());
+        log.info("JWT verification key added: {}", newKeyId);
+    }
+
+    /**
+     * Signs new tokens with an already loaded verification key. Every replica must have loaded the key
+     * before any replica activates it, or the tokens it signs are rejected elsewhere.
+     */
+    public synchronized void activateKey(String activeKeyId) {
+        SigningKeys keys = signingKeys;
+        Key activeKey = keys.verificationKeys().get(activeKeyId);
+        if (activeKey == null) {
+            throw new IllegalArgumentException("Key id " + activeKeyId + " has not been added");
+        }
+        this.signingKeys = new SigningKeys(activeKeyId, activeKey, keys.verificationKeys(), keys.unversionedKeyId());
+        log.info("JWT signing key rotated to key id: {}", activeKeyId);
+    }
+
+    public String getCurrentKeyId() {
+        return signingKeys.currentKeyId();
+    }
+
+    public List<String> getVerificationKeyIds() {
+        return signingKeys.verificationKeys().keySet().stream().sorted().toList();
+    }
+
+    public synchronized void retireKey(String retiredKeyId) {
+        SigningKeys keys = signingKeys;
+        if (keys.currentKeyId().equals(retiredKeyId)) {
+            throw new IllegalArgumentException("The current signing key cannot be retired");
+        }
+        Map<String, Key> verificationKeys = new LinkedHashMap<>(keys.verificationKeys());
+        verificationKeys.remove(retiredKeyId);
+        this.signingKeys = new SigningKeys(keys.currentKeyId(), keys.currentKey(), Map.copyOf(verificationKeys), keys.unversionedKeyId());
+        jwtClaimsCache.clear();
+        log.info("JWT verification key retired: {}", retiredKeyId);
+    }
+
+    private static Key key(String secret) {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    }
+
+    public Claims parseClaims(String token) {
+        return parseTimer.record(() -> parser.parseClaimsJws(token).getBody());
     }
 
     public String getUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public List<GrantedAuthority> getAuthorities(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return getAuthorities(parseClaims(token));
+    }
 
+    public List<GrantedAuthority> getAuthorities(Claims claims) {
         @SuppressWarnings("unchecked")
-        List<String> roles = (List<String>) claims.get("roles");
+        List<String> roles = (List<String>) claims.get(ROLES_CLAIM);
+        if (roles == null) {
+            return List.of();
+        }
         return roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toList());
     }
 
+    public int getTokenVersion(Claims claims) {
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -86,13 +235,30 @@ public class JwtTokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = Jwts.parserBuilder().setSigningKey(secretKey).build().parseClaimsJws(token).getBody();
+        Claims claims = parseClaims(token);
         String username = claims.getSubject();
-        List<SimpleGrantedAuthority> authorities = ((List<String>) claims.get("roles")).stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        List<GrantedAuthority> authorities = getAuthorities(claims);
 
         UserDetails userDetails = new User(username, "", authorities);
         return new UsernamePasswordAuthenticationToken(userDetails, token, authorities);
     }
+
+    // A token without a kid resolves to the unversioned key id, which a rotation does not move; retiring that key, or
+    // leaving jwt.unversioned-key-id empty, rejects such tokens
+    private record SigningKeys(String currentKeyId, Key currentKey, Map<String, Key> verificationKeys, String unversionedKeyId) {
+        Key resolve(String kid) {
+            if (kid == null) {
+                Key key = unversionedKeyId != null ? verificationKeys.get(unversionedKeyId) : null;
+                if (key == null) {
+                    throw new SignatureException("JWT without a key id");
+                }
+                return key;
+            }
+            Key key = verificationKeys.get(kid);
+            if (key == null) {
+                throw new SignatureException("Unknown JWT key id: " + kid);
+            }
+            return key;
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.master.user_management.jwt;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked access-token ids, grouped into buckets by the token's expiry time. A lookup only touches the bucket
+ * the token's own expiry falls into, and a whole bucket is dropped once every token in it has expired.
+ * Revocations are local to this node.
+ */
+@Component
+public class RevokedTokenStore {
+
+    private final Map<Long, Set<String>> buckets = new ConcurrentHashMap<>();
+    private final long bucketMillis;
+
+    public RevokedTokenStore(MeterRegistry meterRegistry, @Value("${jwt.revocation.bucket:PT1M}") Duration bucket) {
+        this.bucketMillis = bucket.toMillis();
+        Gauge.builder("jwt.revoked.size", this, RevokedTokenStore::size)
+                .register(meterRegistry);
+    }
+
+    public void revoke(String jti, Date expiration) {
+        if (jti == null || expiration == null || expiration.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        buckets.computeIfAbsent(bucketOf(expiration), bucket -> ConcurrentHashMap.newKeySet()).add(jti);
+    }
+
+    public boolean isRevoked(String jti, Date expiration) {
+        if (jti == null || expiration == null) {
+            return false;
+        }
+        Set<String> bucket = buckets.get(bucketOf(expiration));
+        return bucket != null && bucket.contains(jti);
+    }
+
+    public int size() {
+        return buckets.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.bucket:PT1M}")
+    public void purgeExpired() {
+        long currentBucket = System.currentTimeMillis() / bucketMillis;
+        buckets.keySet().removeIf(bucket -> bucket < currentBucket);
+    }
+
+    private long bucketOf(Date expiration) {
+        return expiration.getTime() / bucketMillis;
+    }
+}
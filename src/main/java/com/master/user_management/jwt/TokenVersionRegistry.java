@@ -0,0 +1,133 @@
+package com.master.user_management.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.master.user_management.cache.CacheInvalidationBroadcaster;
+import com.master.user_management.cache.UserCacheEvent;
+import com.master.user_management.repository.UserChangeRepository;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.repository.UserTokenVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Minimum accepted token version for users whose version was bumped recently, and usernames that stopped belonging
+ * to their user through a rename or a delete. Only changed users are tracked, and only for one access-token
+ * lifetime, after which every token the entry could reject has expired anyway. Bumps arrive through the user cache
+ * invalidation broadcast, so all replicas learn about them without a database lookup per request. What a replica
+ * could not have heard, because it started later or its listener was down, is reloaded from the users table and
+ * the outbox.
+ */
+@Slf4j
+@Component
+public class TokenVersionRegistry implements SmartLifecycle {
+
+    // Below the web server's start phase, so the load finishes before the first request
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+
+    private final Cache<String, Restriction> restrictions;
+    private final UserRepository userRepository;
+    private final UserChangeRepository userChangeRepository;
+    private final Duration tokenLifetime;
+    private volatile boolean running;
+
+    public TokenVersionRegistry(CacheInvalidationBroadcaster broadcaster, UserRepository userRepository,
+                                UserChangeRepository userChangeRepository,
+                                @Value("${jwt.expiration-time}") long expirationTime) {
+        this.userRepository = userRepository;
+        this.userChangeRepository = userChangeRepository;
+        this.tokenLifetime = Duration.ofMillis(expirationTime);
+        this.restrictions = Caffeine.newBuilder()
+                .expireAfterWrite(tokenLifetime)
+                .build();
+        broadcaster.subscribe(this::onUserChanged);
+    }
+
+    // Runs before the server accepts requests, so a new replica never trusts a token the others already reject, but
+    // not while the context is only being created, so a training run with spring.context.exit=onRefresh needs no database
+    @Override
+    public void start() {
+        load();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    void load() {
+        LocalDateTime since = LocalDateTime.now().minus(tokenLifetime);
+        List<String> retired = userChangeRepository.findUsernamesRetiredSince(since);
+        List<UserTokenVersion> bumped = userRepository.findTokenVersionsChangedSince(since);
+        // A retired name may have been registered again since, so its new owner's bumps are applied on top
+        retired.forEach(this::retire);
+        bumped.forEach(user -> raise(user.getUsername(), user.getTokenVersion()));
+        log.info("Token version registry loaded with {} bumped and {} retired usernames", bumped.size(), retired.size());
+    }
+
+    public boolean isCurrent(String username, int tokenVersion, Date issuedAt) {
+        Restriction restriction = restrictions.getIfPresent(username);
+        return restriction == null || restriction.accepts(tokenVersion, issuedAt);
+    }
+
+    private void onUserChanged(UserCacheEvent event) {
+        if (event.isClearAll()) {
+            try {
+                load();
+            } catch (RuntimeException e) {
+                log.error("Could not reload the token version registry after a missed invalidation window", e);
+            }
+            return;
+        }
+        if (event.username() == null) {
+            return;
+        }
+        if (event.retired()) {
+            retire(event.username());
+        } else if (event.tokenVersion() != null) {
+            raise(event.username(), event.tokenVersion());
+        }
+    }
+
+    private void raise(String username, int tokenVersion) {
+        restrictions.asMap().merge(username, new Restriction(tokenVersion, 0),
+                (current, raised) -> new Restriction(Math.max(current.minimumVersion(), tokenVersion), current.revokedBefore()));
+    }
+
+    // Every token issued for the name until now belonged to the previous owner; a later owner starts at version 0
+    private void retire(String username) {
+        long now = System.currentTimeMillis();
+        restrictions.asMap().merge(username, new Restriction(0, now),
+                (current, retired) -> new Restriction(0, Math.max(current.revokedBefore(), now)));
+    }
+
+    // The issued-at claim has second precision, so a token issued within the second of a retirement is rejected too
+    private record Restriction(int minimumVersion, long revokedBefore) {
+
+        boolean accepts(int tokenVersion, Date issuedAt) {
+            if (tokenVersion < minimumVersion) {
+                return false;
+            }
+            return revokedBefore == 0 || issuedAt != null && issuedAt.getTime() > revokedBefore;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.master.user_management.logging;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Switches Hibernate statement logging on and off at runtime, replacing the always-on show-sql output.
+ * POST /actuator/sqllogging {"enabled": true, "bindParameters": false}
+ */
+@Component
+@Endpoint(id = "sqllogging")
+public class SqlLoggingEndpoint {
+
+    private static final String SQL_LOGGER = "org.hibernate.SQL";
+    private static final String BIND_LOGGER = "org.hibernate.orm.jdbc.bind";
+
+    private final LoggingSystem loggingSystem;
+
+    public SqlLoggingEndpoint(LoggingSystem loggingSystem) {
+        this.loggingSystem = loggingSystem;
+    }
+
+    @ReadOperation
+    public Map<String, Boolean> status() {
+        return Map.of(
+                "enabled", isEnabled(SQL_LOGGER, LogLevel.DEBUG),
+                "bindParameters", isEnabled(BIND_LOGGER, LogLevel.TRACE)
+        );
+    }
+
+    @WriteOperation
+    public Map<String, Boolean> configure(boolean enabled, @Nullable Boolean bindParameters) {
+        loggingSystem.setLogLevel(SQL_LOGGER, enabled ? LogLevel.DEBUG : null);
+        loggingSystem.setLogLevel(BIND_LOGGER, enabled && Boolean.TRUE.equals(bindParameters) ? LogLevel.TRACE : null);
+        return status();
+    }
+
+    private boolean isEnabled(String loggerName, LogLevel level) {
+        LoggerConfiguration configuration = loggingSystem.getLoggerConfiguration(loggerName);
+        return configuration != null && configuration.getEffectiveLevel().ordinal() <= level.ordinal();
+    }
+}
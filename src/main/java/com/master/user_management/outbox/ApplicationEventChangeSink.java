@@ -0,0 +1,27 @@
+package com.master.user_management.outbox;
+
+import com.master.user_management.dto.response.UserChangeDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes every change as a Spring application event, for in-process consumers and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "events", matchIfMissing = true)
+public class ApplicationEventChangeSink implements ChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventChangeSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<UserChangeDTO> changes) {
+        changes.forEach(eventPublisher::publishEvent);
+    }
+}
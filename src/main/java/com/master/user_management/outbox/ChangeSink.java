@@ -0,0 +1,14 @@
+package com.master.user_management.outbox;
+
+import com.master.user_management.dto.response.UserChangeDTO;
+
+import java.util.List;
+
+/**
+ * Destination of relayed user changes. A batch is only marked published if {@link #publish} returns normally;
+ * on failure it is retried, so sinks must tolerate receiving a change more than once.
+ */
+public interface ChangeSink {
+
+    void publish(List<UserChangeDTO> changes);
+}
@@ -0,0 +1,55 @@
+package com.master.user_management.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.master.user_management.dto.response.UserChangeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends changes as NDJSON to a local file, one batch per write, and forces it to disk before the batch counts
+ * as published.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "file")
+@RegisterReflectionForBinding(UserChangeDTO.class)
+public class FileChangeSink implements ChangeSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileChangeSink(ObjectMapper objectMapper, @Value("${outbox.file.path:user-changes.ndjson}") Path path) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<UserChangeDTO> changes) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            for (UserChangeDTO change : changes) {
+                buffer.write(objectMapper.writeValueAsBytes(change));
+                buffer.write('\n');
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append user changes to " + path, e);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.master.user_management.outbox;
+
+import com.master.user_management.dto.response.UserChangeDTO;
+import com.master.user_management.entity.ChangeType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves unpublished outbox records to the {@link ChangeSink} in batches. A transaction-scoped advisory lock keeps
+ * replicas from relaying concurrently, which is what makes the assigned feed sequence follow publish order.
+ * Records are marked published in the same transaction that hands them to the sink, so a failed batch is retried
+ * as a whole.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_ID = 7_203_114_625L;
+
+    private static final String SELECT_UNPUBLISHED = """
+            SELECT id, user_id, change_type, username, email, occurred_at FROM user_changes
+            WHERE published_at IS NULL ORDER BY id LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeSink changeSink;
+    private final Counter publishedChanges;
+    private final int batchSize;
+
+    public OutboxRelay(DataSource dataSource, PlatformTransactionManager transactionManager, ChangeSink changeSink,
+                       MeterRegistry meterRegistry, @Value("${outbox.relay.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeSink = changeSink;
+        this.batchSize = batchSize;
+        this.publishedChanges = Counter.builder("outbox.relay.published")
+                .description("User changes handed to the change sink")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = transactionTemplate.execute(status -> relayBatch());
+            } while (published == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("User change relay failed, retrying on the next run: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_ID);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(batchSize);
+        List<UserChangeDTO> changes = jdbcTemplate.query(SELECT_UNPUBLISHED, (resultSet, rowNum) -> {
+            ids.add(resultSet.getLong("id"));
+            return new UserChangeDTO(
+                    null,
+                    resultSet.getLong("user_id"),
+                    ChangeType.valueOf(resultSet.getString("change_type")),
+                    resultSet.getString("username"),
+                    resultSet.getString("email"),
+                    resultSet.getTimestamp("occurred_at").toLocalDateTime());
+        }, batchSize);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> sequences = jdbcTemplate.queryForList("SELECT nextval('user_change_feed_seq') FROM generate_series(1, ?)",
+                Long.class, changes.size());
+        sequences.sort(null);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> updates = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            changes.get(i).setSequence(sequences.get(i));
+            updates.add(new Object[]{sequences.get(i), now, ids.get(i)});
+        }
+        jdbcTemplate.batchUpdate("UPDATE user_changes SET sequence = ?, published_at = ? WHERE id = ?", updates);
+
+        changeSink.publish(changes);
+        publishedChanges.increment(changes.size());
+        return changes.size();
+    }
+}
@@ -0,0 +1,32 @@
+package com.master.user_management.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * A token bucket holding up to {@code capacity} tokens that refills completely over {@code refillPeriod}.
+ * Written as {@code <capacity>/<ISO-8601 duration>}, for example {@code 20/PT1M}.
+ */
+public record BucketSpec(long capacity, Duration refillPeriod) {
+
+    public static BucketSpec parse(String value) {
+        int separator = value.indexOf('/');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Rate limit must be in the form <capacity>/<duration>: " + value);
+        }
+        long capacity = Long.parseLong(value.substring(0, separator).trim());
+        Duration refillPeriod = Duration.parse(value.substring(separator + 1).trim());
+        if (capacity <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Rate limit capacity and duration must be positive: " + value);
+        }
+        return new BucketSpec(capacity, refillPeriod);
+    }
+
+    public double tokensPerSecond() {
+        return capacity / (refillPeriod.toNanos() / 1_000_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return capacity + "/" + refillPeriod;
+    }
+}
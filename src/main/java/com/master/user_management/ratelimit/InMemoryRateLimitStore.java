@@ -0,0 +1,68 @@
+package com.master.user_management.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buckets are immutable snapshots updated with compare-and-set, so concurrent requests never block each other.
+ * A bucket that has been idle long enough to refill completely is indistinguishable from a new one and is purged.
+ */
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "local", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryConsume(String key, BucketSpec spec) {
+        long now = System.nanoTime();
+        AtomicReference<Bucket> reference = buckets.computeIfAbsent(key,
+                k -> new AtomicReference<>(new Bucket(spec.capacity(), now, spec.refillPeriod().toNanos())));
+        while (true) {
+            Bucket current = reference.get();
+            Bucket refilled = current.refill(spec, now);
+            if (refilled.tokens() < 1) {
+                double secondsUntilToken = (1 - refilled.tokens()) / spec.tokensPerSecond();
+                return Math.max(1, (long) Math.ceil(secondsUntilToken));
+            }
+            if (reference.compareAndSet(current, refilled.take())) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.purge-interval:PT1M}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(reference -> reference.get().isIdle(now));
+    }
+
+    private record Bucket(double tokens, long updatedAt, long refillNanos) {
+
+        Bucket refill(BucketSpec spec, long now) {
+            long elapsed = now - updatedAt;
+            if (elapsed <= 0) {
+                return this;
+            }
+            double refilled = Math.min(spec.capacity(), tokens + elapsed * (double) spec.capacity() / refillNanos);
+            return new Bucket(refilled, now, refillNanos);
+        }
+
+        Bucket take() {
+            return new Bucket(tokens - 1, updatedAt, refillNanos);
+        }
+
+        boolean isIdle(long now) {
+            return now - updatedAt >= refillNanos;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.master.user_management.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Shares buckets between replicas through the unlogged {@code rate_limit_buckets} table. Each attempt is a single
+ * upsert that refills and consumes atomically under the row lock. If the database cannot be reached the limiter
+ * fails open, so an outage of the shared store never locks out legitimate users.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ratelimit.store", havingValue = "postgres")
+public class PostgresRateLimitStore implements RateLimitStore {
+
+    private static final String REFILLED = "LEAST(?, b.tokens + EXTRACT(EPOCH FROM now() - b.updated_at) * ?)";
+
+    private static final String CONSUME_SQL = """
+            INSERT INTO rate_limit_buckets AS b (bucket_key, tokens, allowed, updated_at)
+            VALUES (?, ? - 1, true, now())
+            ON CONFLICT (bucket_key) DO UPDATE SET
+                tokens = %1$s - CASE WHEN %1$s >= 1 THEN 1 ELSE 0 END,
+                allowed = %1$s >= 1,
+                updated_at = now()
+            RETURNING tokens, allowed
+            """.formatted(REFILLED);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final Counter storeErrors;
+
+    public PostgresRateLimitStore(DataSource dataSource, MeterRegistry meterRegistry,
+                                  @Value("${ratelimit.postgres.retention:PT1H}") Duration retention) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.retention = retention;
+        this.storeErrors = Counter.builder("ratelimit.store.errors")
+                .description("Rate limit checks that failed open because the shared store was unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public long tryConsume(String key, BucketSpec spec) {
+        long capacity = spec.capacity();
+        double rate = spec.tokensPerSecond();
+        try {
+            return jdbcTemplate.queryForObject(CONSUME_SQL, (resultSet, rowNum) -> {
+                if (resultSet.getBoolean("allowed")) {
+                    return 0L;
+                }
+                double secondsUntilToken = (1 - resultSet.getDouble("tokens")) / rate;
+                return Math.max(1L, (long) Math.ceil(secondsUntilToken));
+            }, key, capacity, capacity, rate, capacity, rate, capacity, rate);
+        } catch (DataAccessException e) {
+            storeErrors.increment();
+            log.warn("Rate limit store unavailable, allowing request: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ratelimit.purge-interval:PT1M}")
+    public void purgeIdle() {
+        try {
+            jdbcTemplate.update("DELETE FROM rate_limit_buckets WHERE updated_at < ?",
+                    Timestamp.from(Instant.now().minus(retention)));
+        } catch (DataAccessException e) {
+            log.warn("Failed to purge idle rate limit buckets: {}", e.getMessage());
+        }
+    }
+}
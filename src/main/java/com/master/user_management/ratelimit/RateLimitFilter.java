@@ -0,0 +1,162 @@
+package com.master.user_management.ratelimit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.master.user_management.dto.response.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static com.master.user_management.util.Constants.ERROR;
+
+/**
+ * Rejects requests over their rate limit with 429 before authentication, validation or password hashing runs.
+ * For routes with a per-username limit the JSON body is read to find the username and then replayed to the
+ * rest of the chain; bodies over {@value #MAX_BODY_BYTES} bytes are refused on those routes.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RateLimiter.Route route = rateLimiter.match(request);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletRequest forwardedRequest = request;
+        String username = null;
+        if (rateLimiter.limitsUsername(route)) {
+            byte[] body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                log.warn("Request body over {} bytes on {} from {}", MAX_BODY_BYTES, request.getRequestURI(), request.getRemoteAddr());
+                writeError(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large.");
+                return;
+            }
+            username = extractUsername(body);
+            forwardedRequest = new ReplayingRequest(request, body);
+        }
+
+        RateLimiter.Decision decision = rateLimiter.check(route, request.getRemoteAddr(), username);
+        if (!decision.allowed()) {
+            log.warn("Rate limit exceeded on {} ({} limit) from {}", request.getRequestURI(), decision.limit(), request.getRemoteAddr());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+            writeError(response, HttpStatus.TOO_MANY_REQUESTS, "Too many requests. Please try again later.");
+            return;
+        }
+        chain.doFilter(forwardedRequest, response);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponse<>(ERROR, message, null));
+    }
+
+    private String extractUsername(byte[] body) {
+        try {
+            JsonNode username = objectMapper.readTree(body).get("username");
+            return username != null && username.isTextual() ? username.asText() : null;
+        } catch (IOException e) {
+            // Truncated or malformed bodies are left to the controller; the IP and global limits still apply
+            return null;
+        }
+    }
+
+    private static class ReplayingRequest extends HttpServletRequestWrapper {
+
+        private final BodyInputStream body;
+
+        ReplayingRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = new BodyInputStream(body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return body;
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(body, charset));
+        }
+    }
+
+    /**
+     * The buffered body. Every byte is already in memory, so the stream is always ready and an asynchronous reader
+     * is told right away that data is available and, once it has read everything, that all data has been read.
+     */
+    static class BodyInputStream extends ServletInputStream {
+
+        private final ByteArrayInputStream body;
+
+        BodyInputStream(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return body.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            return body.read(buffer, offset, length);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return body.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.master.user_management.ratelimit;
+
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket stored under {@code key}, creating a full bucket if there is none.
+     *
+     * @return 0 if a token was taken, otherwise the number of seconds until one is available
+     */
+    long tryConsume(String key, BucketSpec spec);
+}
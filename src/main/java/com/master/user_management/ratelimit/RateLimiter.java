@@ -0,0 +1,109 @@
+package com.master.user_management.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Token-bucket limits for the routes that trigger password hashing. Each route has optional per-IP, per-username
+ * and global buckets, configured as {@code ratelimit.<route>.per-ip}, {@code .per-username} and {@code .global};
+ * an empty value disables that bucket.
+ */
+@Component
+public class RateLimiter {
+
+    // Longer than any valid username; caps the key size an attacker can make us store
+    private static final int MAX_USERNAME_KEY_LENGTH = 64;
+
+    public enum Route {
+        LOGIN("login", "/api/auth/login"),
+        REGISTER("register", "/api/users/register");
+
+        private final String key;
+        private final String path;
+
+        Route(String key, String path) {
+            this.key = key;
+            this.path = path;
+        }
+    }
+
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<Route, Limits> limits = new EnumMap<>(Route.class);
+
+    public RateLimiter(RateLimitStore store, MeterRegistry meterRegistry,
+                       @Value("${ratelimit.enabled:true}") boolean enabled,
+                       @Value("${ratelimit.login.per-ip}") String loginPerIp,
+                       @Value("${ratelimit.login.per-username}") String loginPerUsername,
+                       @Value("${ratelimit.login.global}") String loginGlobal,
+                       @Value("${ratelimit.register.per-ip}") String registerPerIp,
+                       @Value("${ratelimit.register.per-username}") String registerPerUsername,
+                       @Value("${ratelimit.register.global}") String registerGlobal) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        limits.put(Route.LOGIN, new Limits(spec(loginPerIp), spec(loginPerUsername), spec(loginGlobal)));
+        limits.put(Route.REGISTER, new Limits(spec(registerPerIp), spec(registerPerUsername), spec(registerGlobal)));
+    }
+
+    private static BucketSpec spec(String value) {
+        return value == null || value.isBlank() ? null : BucketSpec.parse(value);
+    }
+
+    public Route match(HttpServletRequest request) {
+        if (!enabled || !"POST".equals(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Route route : Route.values()) {
+            if (route.path.equals(path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    public boolean limitsUsername(Route route) {
+        return limits.get(route).perUsername() != null;
+    }
+
+    public Decision check(Route route, String clientIp, String username) {
+        Limits routeLimits = limits.get(route);
+        // Most specific first, so a single noisy client is stopped before it drains the shared global bucket
+        Decision decision = consume(route, "ip", routeLimits.perIp(), clientIp);
+        if (decision.allowed() && username != null) {
+            String usernameKey = username.length() > MAX_USERNAME_KEY_LENGTH ? username.substring(0, MAX_USERNAME_KEY_LENGTH) : username;
+            decision = consume(route, "username", routeLimits.perUsername(), usernameKey.toLowerCase(Locale.ROOT));
+        }
+        if (decision.allowed()) {
+            decision = consume(route, "global", routeLimits.global(), "*");
+        }
+        meterRegistry.counter("ratelimit.requests",
+                "route", route.key,
+                "result", decision.allowed() ? "allowed" : "rejected",
+                "limit", decision.allowed() ? "none" : decision.limit()).increment();
+        return decision;
+    }
+
+    private Decision consume(Route route, String limit, BucketSpec spec, String subject) {
+        if (spec == null || subject == null) {
+            return Decision.ALLOWED;
+        }
+        long retryAfterSeconds = store.tryConsume(route.key + ':' + limit + ':' + subject, spec);
+        return retryAfterSeconds == 0 ? Decision.ALLOWED : new Decision(false, retryAfterSeconds, limit);
+    }
+
+    private record Limits(BucketSpec perIp, BucketSpec perUsername, BucketSpec global) {
+    }
+
+    public record Decision(boolean allowed, long retryAfterSeconds, String limit) {
+        static final Decision ALLOWED = new Decision(true, 0, null);
+    }
+}
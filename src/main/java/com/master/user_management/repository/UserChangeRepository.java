@@ -0,0 +1,30 @@
+package com.master.user_management.repository;
+
+import com.master.user_management.entity.UserChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    @Query("select c from UserChange c where c.sequence > :since order by c.sequence")
+    Slice<UserChange> findPublishedAfter(@Param("since") long since, Pageable pageable);
+
+    // Names that stopped belonging to a user through a delete or a rename
+    @Query(value = "SELECT username FROM user_changes WHERE change_type = 'DELETED' AND occurred_at > :since " +
+            "UNION SELECT previous_username FROM user_changes WHERE previous_username IS NOT NULL AND occurred_at > :since",
+            nativeQuery = true)
+    List<String> findUsernamesRetiredSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("delete from UserChange c where c.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,15 +1,95 @@
 package com.master.user_management.repository;
 
+import com.master.user_management.dto.UserDTO;
 import com.master.user_management.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Page<User> findAll(Pageable pageable);
-}
 
+    // Projections select only the columns UserDTO exposes and never build managed User entities
+
+    @Query(value = "select new com.master.user_management.dto.UserDTO(u.id, u.username, u.email) from User u",
+            countQuery = "select count(u) from User u")
+    Page<UserDTO> findAllDTOs(Pageable pageable);
+
+    @Query("select new com.master.user_management.dto.UserDTO(u.id, u.username, u.email) from User u order by u.id")
+    List<UserDTO> findAllDTOs();
+
+    @Query("select new com.master.user_management.dto.UserDTO(u.id, u.username, u.email) from User u where u.id > :id order by u.id")
+    Slice<UserDTO> findDTOsAfter(@Param("id") Long id, Pageable pageable);
+
+    @Query("select new com.master.user_management.dto.UserDTO(u.id, u.username, u.email) from User u where u.username in :usernames")
+    List<UserDTO> findDTOsByUsernames(@Param("usernames") Collection<String> usernames);
+
+    // Each branch is a range scan over one lower(...) text_pattern_ops index from the V3 migration, read in index order
+    // (USING ~<~) and stopped after :limit rows; an OR across both columns would fetch and sort every match instead.
+    // Results are ordered by the matched value, like the type-ahead index. The pattern must be lower-cased and escaped.
+    @Query(value = "SELECT id, username, email FROM (" +
+            "(SELECT id, username, email, lower(username) AS matched FROM users " +
+            "WHERE lower(username) LIKE :pattern ORDER BY lower(username) USING ~<~ LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT id, username, email, lower(email) AS matched FROM users " +
+            "WHERE lower(email) LIKE :pattern ORDER BY lower(email) USING ~<~ LIMIT :limit)" +
+            ") matches GROUP BY id, username, email ORDER BY min(matched) COLLATE \"C\", id LIMIT :limit", nativeQuery = true)
+    List<UserSummary> searchByPrefix(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    // Served by the pg_trgm GIN indexes in the V3 migration
+    @Query(value = "SELECT id, username, email FROM users " +
+            "WHERE username % :query OR email % :query " +
+            "ORDER BY greatest(similarity(username, :query), similarity(email, :query)) DESC, id LIMIT :limit", nativeQuery = true)
+    List<UserSummary> searchFuzzy(@Param("query") String query, @Param("limit") int limit);
+
+    // Without a fetch size the PostgreSQL driver buffers the whole result before the stream yields its first row
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from User u")
+    Stream<String> streamAllUsernames();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id as id, u.username as username, u.email as email from User u")
+    Stream<UserSummary> streamAllSummaries();
+
+    @Query("select u.username as username, u.tokenVersion as tokenVersion from User u where u.tokenVersion > 0 and u.updatedAt > :since")
+    List<UserTokenVersion> findTokenVersionsChangedSince(@Param("since") LocalDateTime since);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Partitioned layout: the lookup tables resolve the id, and the id prunes the scan to the partition holding it
+
+    @Query(value = "SELECT u.* FROM users u WHERE u.id = (SELECT l.user_id FROM user_usernames l WHERE l.username = :username)",
+            nativeQuery = true)
+    Optional<User> findByUsernameViaLookup(@Param("username") String username);
+
+    @Query(value = "SELECT username FROM user_usernames WHERE username IN (:usernames)", nativeQuery = true)
+    Set<String> findExistingUsernamesViaLookup(@Param("usernames") Collection<String> usernames);
+
+    @Query(value = "SELECT email FROM user_emails WHERE email IN (:emails)", nativeQuery = true)
+    Set<String> findExistingEmailsViaLookup(@Param("emails") Collection<String> emails);
+
+    // Rehashing does not change the representation, so it deliberately leaves the optimistic-locking version alone
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+}
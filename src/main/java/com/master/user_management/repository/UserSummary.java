@@ -0,0 +1,7 @@
+package com.master.user_management.repository;
+
+public interface UserSummary {
+    Long getId();
+    String getUsername();
+    String getEmail();
+}
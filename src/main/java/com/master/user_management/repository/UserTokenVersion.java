@@ -0,0 +1,6 @@
+package com.master.user_management.repository;
+
+public interface UserTokenVersion {
+    String getUsername();
+    int getTokenVersion();
+}
@@ -0,0 +1,167 @@
+package com.master.user_management.search;
+
+import com.master.user_management.cache.CacheInvalidationBroadcaster;
+import com.master.user_management.cache.UserCacheEvent;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.repository.UserSummary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Optional in-memory index for type-ahead on usernames and emails. Every user contributes two
+ * sorted keys, {@code lower(username)\0username} and {@code lower(email)\0username}, so a prefix
+ * lookup is a range scan over a concurrent skip list and answers with usernames only. Changes
+ * arrive through the user cache broadcast, which delivers them after commit and in commit order on
+ * every replica, including the one that made them. Changes that arrive while the index is being
+ * loaded are queued and applied on top of the loaded snapshot.
+ */
+@Slf4j
+@Component
+public class UserPrefixIndex {
+
+    private static final char SEPARATOR = '\0';
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private final Object lock = new Object();
+    // Guarded by lock; non-null while a load is running
+    private List<UserCacheEvent> pending;
+    private volatile NavigableSet<String> entries = new ConcurrentSkipListSet<>();
+    private volatile boolean ready;
+
+    public UserPrefixIndex(UserRepository userRepository, CacheInvalidationBroadcaster broadcaster,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${search.type-ahead.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        // Read-write, so the snapshot comes from the primary and is not older than changes already applied
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        if (enabled) {
+            broadcaster.subscribe(this::onUserChanged);
+        }
+    }
+
+    // Built in the background; until it is ready lookups fall back to the database
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            pending = new ArrayList<>();
+        }
+        NavigableSet<String> loaded = new ConcurrentSkipListSet<>();
+        AtomicLong count = new AtomicLong();
+        boolean complete = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<UserSummary> users = userRepository.streamAllSummaries()) {
+                    users.forEach(user -> {
+                        addEntries(loaded, user.getUsername(), user.getEmail());
+                        count.incrementAndGet();
+                    });
+                }
+            });
+            complete = true;
+        } finally {
+            synchronized (lock) {
+                NavigableSet<String> target = complete ? loaded : entries;
+                pending.forEach(event -> apply(target, event));
+                pending = null;
+                entries = target;
+            }
+        }
+        ready = true;
+        log.info("Type-ahead index loaded with {} users", count.get());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<String> findUsernames(String prefix, int limit) {
+        String from = prefix.toLowerCase(Locale.ROOT);
+        Set<String> usernames = new LinkedHashSet<>();
+        for (String entry : entries.subSet(from, true, from + Character.MAX_VALUE, false)) {
+            if (!entry.substring(0, entry.indexOf(SEPARATOR)).startsWith(from)) {
+                continue;
+            }
+            usernames.add(entry.substring(entry.indexOf(SEPARATOR) + 1));
+            if (usernames.size() == limit) {
+                break;
+            }
+        }
+        return List.copyOf(usernames);
+    }
+
+    private void onUserChanged(UserCacheEvent event) {
+        if (event.isClearAll()) {
+            reloadAfterMissedChanges();
+            return;
+        }
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(event);
+                return;
+            }
+            apply(entries, event);
+        }
+    }
+
+    // Removals may have been missed, so the index cannot be patched; lookups use the database until it is reloaded
+    private void reloadAfterMissedChanges() {
+        if (!ready || !reloading.compareAndSet(false, true)) {
+            return;
+        }
+        ready = false;
+        Thread.ofPlatform().name("type-ahead-reload").daemon(true).start(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Could not reload the type-ahead index after a missed invalidation window", e);
+            } finally {
+                reloading.set(false);
+            }
+        });
+    }
+
+    // Role changes and password upgrades carry no email and leave the index alone
+    private static void apply(NavigableSet<String> entries, UserCacheEvent event) {
+        if (event.username() != null && event.email() != null) {
+            entries.remove(key(event.username(), event.username()));
+            entries.remove(key(event.email(), event.username()));
+        }
+        if (event.currentUsername() != null && event.currentEmail() != null) {
+            addEntries(entries, event.currentUsername(), event.currentEmail());
+        }
+    }
+
+    private static void addEntries(NavigableSet<String> entries, String username, String email) {
+        entries.add(key(username, username));
+        entries.add(key(email, username));
+    }
+
+    private static String key(String value, String username) {
+        return value.toLowerCase(Locale.ROOT) + SEPARATOR + username;
+    }
+}
@@ -0,0 +1,95 @@
+package com.master.user_management.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Counts failed logins per username and per client IP and locks a key out once it exceeds its
+ * limit within the failure window. Entries expire once neither the window nor the lockout can
+ * still apply, and security.login.max-tracked-keys caps how many usernames and IPs a spray of
+ * failed logins can make us track. Updates for different keys never contend.
+ */
+@Service
+public class LoginAttemptService {
+
+    private final Cache<String, Attempts> usernameFailures;
+    private final Cache<String, Attempts> ipFailures;
+    private final int maxUsernameFailures;
+    private final int maxIpFailures;
+    private final long windowMillis;
+    private final long lockoutMillis;
+
+    public LoginAttemptService(@Value("${security.login.max-failures-per-username:5}") int maxUsernameFailures,
+                               @Value("${security.login.max-failures-per-ip:50}") int maxIpFailures,
+                               @Value("${security.login.failure-window:PT15M}") Duration window,
+                               @Value("${security.login.lockout-duration:PT15M}") Duration lockout,
+                               @Value("${security.login.max-tracked-keys:100000}") int maxTrackedKeys) {
+        this.maxUsernameFailures = maxUsernameFailures;
+        this.maxIpFailures = maxIpFailures;
+        this.windowMillis = window.toMillis();
+        this.lockoutMillis = lockout.toMillis();
+        // Every failure rewrites the entry, which is stale at the latest this long after the last write
+        Duration retention = window.compareTo(lockout) >= 0 ? window : lockout;
+        this.usernameFailures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(retention)
+                .build();
+        this.ipFailures = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Returns the remaining lockout in seconds, or 0 when neither the username nor the IP is locked.
+     */
+    public long lockoutRemainingSeconds(String username, String ip) {
+        long now = System.currentTimeMillis();
+        long remaining = Math.max(remaining(get(usernameFailures, username), now), remaining(get(ipFailures, ip), now));
+        return remaining > 0 ? Math.max(1, remaining / 1000) : 0;
+    }
+
+    public void loginFailed(String username, String ip) {
+        long now = System.currentTimeMillis();
+        record(usernameFailures, username, maxUsernameFailures, now);
+        record(ipFailures, ip, maxIpFailures, now);
+    }
+
+    public void loginSucceeded(String username) {
+        if (username != null) {
+            usernameFailures.invalidate(username);
+        }
+    }
+
+    private static Attempts get(Cache<String, Attempts> failures, String key) {
+        return key == null ? null : failures.getIfPresent(key);
+    }
+
+    private void record(Cache<String, Attempts> failures, String key, int maxFailures, long now) {
+        if (key == null) {
+            return;
+        }
+        failures.asMap().compute(key, (k, attempts) -> {
+            if (attempts == null || attempts.isStale(now, windowMillis)) {
+                return new Attempts(1, now, 0);
+            }
+            int count = attempts.count() + 1;
+            long lockedUntil = count >= maxFailures ? now + lockoutMillis : attempts.lockedUntil();
+            return new Attempts(count, attempts.windowStart(), lockedUntil);
+        });
+    }
+
+    private static long remaining(Attempts attempts, long now) {
+        return attempts == null ? 0 : attempts.lockedUntil() - now;
+    }
+
+    private record Attempts(int count, long windowStart, long lockedUntil) {
+        boolean isStale(long now, long windowMillis) {
+            return now >= lockedUntil && now - windowStart >= windowMillis;
+        }
+    }
+}
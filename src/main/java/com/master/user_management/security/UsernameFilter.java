@@ -0,0 +1,162 @@
+package com.master.user_management.security;
+
+import com.master.user_management.cache.CacheInvalidationBroadcaster;
+import com.master.user_management.cache.UserCacheEvent;
+import com.master.user_management.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over every registered username. A negative answer is definitive, so logins for
+ * unknown names can be rejected without a database lookup. Deleted names stay in the filter and
+ * only cost a lookup, which is why entries are never removed. Until the initial load has finished
+ * every name is reported as possibly present. Names registered on other replicas arrive through
+ * the user cache broadcast; after a missed broadcast the filter is reloaded, and a few negative
+ * answers per second can be re-checked against the database to catch anything still missing.
+ */
+@Slf4j
+@Component
+public class UsernameFilter {
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private final int missRechecksPerSecond;
+    private final AtomicLong recheckSecond = new AtomicLong();
+    private final AtomicInteger rechecks = new AtomicInteger();
+    private final AtomicBoolean reloading = new AtomicBoolean();
+    private volatile boolean ready;
+
+    public UsernameFilter(UserRepository userRepository, CacheInvalidationBroadcaster broadcaster,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${security.login.username-filter.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${security.login.username-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          @Value("${security.login.username-filter.miss-rechecks-per-second:5}") int missRechecksPerSecond) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.missRechecksPerSecond = missRechecksPerSecond;
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        broadcaster.subscribe(this::onUserChanged);
+    }
+
+    // Built in the background; until it is ready lookups fall back to the database
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        AtomicLong count = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<String> usernames = userRepository.streamAllUsernames()) {
+                usernames.forEach(username -> {
+                    add(username);
+                    count.incrementAndGet();
+                });
+            }
+        });
+        ready = true;
+        log.info("Username filter loaded with {} usernames ({} bits, {} hash functions)", count.get(), bitCount, hashCount);
+    }
+
+    public void add(String username) {
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            setBit(bit);
+        }
+    }
+
+    public boolean mightContain(String username) {
+        if (!ready) {
+            return true;
+        }
+        long hash = hash(username);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a name the filter rejected should still be looked up, in case it was added through a change this
+     * replica never heard about. Allows {@code miss-rechecks-per-second} lookups per second.
+     */
+    public boolean allowMissRecheck() {
+        long second = System.currentTimeMillis() / 1000;
+        long current = recheckSecond.get();
+        if (current != second && recheckSecond.compareAndSet(current, second)) {
+            rechecks.set(0);
+        }
+        return rechecks.incrementAndGet() <= missRechecksPerSecond;
+    }
+
+    private void onUserChanged(UserCacheEvent event) {
+        if (event.currentUsername() != null) {
+            add(event.currentUsername());
+        } else if (event.isClearAll() && ready && reloading.compareAndSet(false, true)) {
+            // Names added meanwhile are unknown, so answer "possibly present" until the reload has seen them
+            ready = false;
+            Thread.ofPlatform().name("username-filter-reload").daemon(true).start(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Could not reload the username filter after a missed invalidation window", e);
+                } finally {
+                    reloading.set(false);
+                }
+            });
+        }
+    }
+
+    private void setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        long current;
+        do {
+            current = bits.get(index);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(index, current, current | mask));
+    }
+
+    // 64-bit FNV-1a followed by a murmur3 finalizer to spread the bits
+    private static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,101 @@
+package com.master.user_management.service;
+
+import com.master.user_management.entity.RefreshToken;
+import com.master.user_management.entity.User;
+import com.master.user_management.exception.InvalidTokenException;
+import com.master.user_management.repository.RefreshTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Issues opaque refresh tokens and rotates them on every use. Only the SHA-256 hash is persisted; the raw value
+ * is returned to the client once. Presenting a token that was already rotated revokes every refresh token of
+ * that user, since one of the two holders is not the legitimate client.
+ */
+@Service
+@Transactional
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Duration ttl;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-token.ttl:P30D}") Duration ttl) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.ttl = ttl;
+    }
+
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), user, now, now.plus(ttl)));
+        return rawToken;
+    }
+
+    // Reuse detection must commit the revocation even though the request itself is rejected
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashForUpdate(hash(rawToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token."));
+        User user = refreshToken.getUser();
+        if (refreshToken.isRevoked()) {
+            int revoked = refreshTokenRepository.revokeAllForUser(user.getId(), now);
+            log.warn("Refresh token reuse detected for user: {}. Revoked {} active refresh tokens", user.getUsername(), revoked);
+            throw new InvalidTokenException("Invalid refresh token.");
+        }
+        if (refreshToken.isExpired(now)) {
+            throw new InvalidTokenException("Refresh token has expired.");
+        }
+        refreshToken.setRevokedAt(now);
+        return new Rotation(user, issue(user));
+    }
+
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .filter(refreshToken -> !refreshToken.isRevoked())
+                .ifPresent(refreshToken -> refreshToken.setRevokedAt(LocalDateTime.now()));
+    }
+
+    public long getTtlSeconds() {
+        return ttl.toSeconds();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(messageDigest.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Rotation(User user, String refreshToken) {
+    }
+}
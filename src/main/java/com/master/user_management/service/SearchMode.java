@@ -0,0 +1,6 @@
+package com.master.user_management.service;
+
+public enum SearchMode {
+    PREFIX,
+    FUZZY
+}
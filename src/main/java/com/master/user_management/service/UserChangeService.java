@@ -0,0 +1,79 @@
+package com.master.user_management.service;
+
+import com.master.user_management.dto.response.UserChangeDTO;
+import com.master.user_management.entity.ChangeType;
+import com.master.user_management.entity.User;
+import com.master.user_management.entity.UserChange;
+import com.master.user_management.repository.UserChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Writes outbox records for user mutations and serves the published ones as an incremental feed. Recording
+ * requires the caller's transaction, so a change record exists exactly when the mutation committed.
+ */
+@Slf4j
+@Service
+public class UserChangeService {
+
+    private static final String INSERT_CREATED_CHANGES = """
+            INSERT INTO user_changes (user_id, change_type, username, email, occurred_at)
+            SELECT id, 'CREATED', username, email, ? FROM users WHERE username = ANY(?) ORDER BY id
+            """;
+
+    private final UserChangeRepository userChangeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+
+    public UserChangeService(UserChangeRepository userChangeRepository, DataSource dataSource,
+                             @Value("${outbox.retention:P7D}") Duration retention) {
+        this.userChangeRepository = userChangeRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.retention = retention;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeType changeType, User user) {
+        record(changeType, user, null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ChangeType changeType, User user, String previousUsername) {
+        UserChange change = new UserChange(user.getId(), changeType, user.getUsername(), user.getEmail(), LocalDateTime.now());
+        change.setPreviousUsername(previousUsername);
+        userChangeRepository.save(change);
+    }
+
+    // For rows inserted with plain JDBC, where the generated ids are not at hand
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(Collection<String> usernames) {
+        jdbcTemplate.update(INSERT_CREATED_CHANGES, Timestamp.valueOf(LocalDateTime.now()), usernames.toArray(String[]::new));
+    }
+
+    @Transactional(readOnly = true)
+    public Slice<UserChangeDTO> findChangesSince(long since, int limit) {
+        return userChangeRepository.findPublishedAfter(since, PageRequest.of(0, limit)).map(UserChangeDTO::new);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${outbox.purge-interval:PT1H}")
+    public void purgePublished() {
+        int purged = userChangeRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (purged > 0) {
+            log.info("Purged {} published user changes", purged);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.master.user_management.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+@Slf4j
+@Service
+public class UserExportService {
+
+    private static final String EXPORT_QUERY = "SELECT id, username, email FROM users ORDER BY id";
+
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserExportService(DataSource dataSource, ObjectMapper objectMapper,
+                             @Value("${export.fetch-size:1000}") int fetchSize) {
+        // The PostgreSQL driver only uses a server-side cursor when a fetch size is set inside a transaction
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long export(OutputStream outputStream, Format format) throws IOException {
+        long rows = switch (format) {
+            case NDJSON -> exportNdjson(outputStream);
+            case CSV -> exportCsv(outputStream);
+        };
+        log.info("Exported {} users as {}", rows, format);
+        return rows;
+    }
+
+    private long exportNdjson(OutputStream outputStream) throws IOException {
+        long[] rows = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            jdbcTemplate.query(EXPORT_QUERY, resultSet -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", resultSet.getLong(1));
+                    generator.writeStringField("username", resultSet.getString(2));
+                    generator.writeStringField("email", resultSet.getString(3));
+                    generator.writeEndObject();
+                    rows[0]++;
+                } catch (IOException e) {
+                    // The client went away; failing the row callback closes the cursor and ends the query
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeRaw('\n');
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private long exportCsv(OutputStream outputStream) throws IOException {
+        long[] rows = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try {
+            writer.write("id,username,email\n");
+            jdbcTemplate.query(EXPORT_QUERY, resultSet -> {
+                try {
+                    writer.write(Long.toString(resultSet.getLong(1)));
+                    writer.write(',');
+                    writer.write(csv(resultSet.getString(2)));
+                    writer.write(',');
+                    writer.write(csv(resultSet.getString(3)));
+                    writer.write('\n');
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return rows[0];
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
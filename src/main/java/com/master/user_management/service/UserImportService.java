@@ -0,0 +1,338 @@
+package com.master.user_management.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.master.user_management.cache.UserCache;
+import com.master.user_management.dto.request.UserRegistrationDTO;
+import com.master.user_management.dto.response.BulkImportResult;
+import com.master.user_management.dto.response.ImportRowResult;
+import com.master.user_management.entity.RoleName;
+import com.master.user_management.exception.HashingCapacityExceededException;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.security.UsernameFilter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+public class UserImportService {
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, password, email, created_at, updated_at, role_name) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final Set<String> ROLE_NAMES = Arrays.stream(RoleName.values())
+            .map(Enum::name)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+    public enum Format {
+        JSON, CSV
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final UsernameFilter usernameFilter;
+    private final UserCache userCache;
+    private final UserChangeService userChangeService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int hashingParallelism;
+    private final int maxRejectedRows;
+    private final boolean partitioned;
+
+    public UserImportService(UserRepository userRepository, PasswordHashingService passwordHashingService, UsernameFilter usernameFilter,
+                             UserCache userCache, UserChangeService userChangeService, ObjectMapper objectMapper, Validator validator, DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${import.chunk-size:500}") int chunkSize,
+                             @Value("${import.hashing-parallelism:0}") int hashingParallelism,
+                             @Value("${import.max-rejected-rows:1000}") int maxRejectedRows,
+                             @Value("${users.partitioned:false}") boolean partitioned) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.usernameFilter = usernameFilter;
+        this.userCache = userCache;
+        this.userChangeService = userChangeService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.hashingParallelism = hashingParallelism;
+        this.maxRejectedRows = maxRejectedRows;
+        this.partitioned = partitioned;
+    }
+
+    public BulkImportResult importUsers(InputStream inputStream, Format format) throws IOException {
+        BulkImportResult result = new BulkImportResult(maxRejectedRows);
+        Iterator<ParsedRow> rows = format == Format.CSV ? csvRows(inputStream) : jsonRows(inputStream);
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        long rowNumber = 0;
+        ParsedRow parsed;
+        while ((parsed = nextRow(rows, rowNumber + 1)) != null) {
+            chunk.add(new ImportRow(++rowNumber, parsed.user(), parsed.error()));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, result);
+        }
+
+        log.info("Bulk import finished: {} processed, {} created, {} rejected", result.getProcessed(), result.getCreated(), result.getRejected());
+        return result;
+    }
+
+    private static ParsedRow nextRow(Iterator<ParsedRow> rows, long rowNumber) throws IOException {
+        try {
+            return rows.hasNext() ? rows.next() : null;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed input at row " + rowNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    private void importChunk(List<ImportRow> chunk, BulkImportResult result) {
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.error() != null) {
+                result.rejected(rejected(row, row.error()));
+                continue;
+            }
+            Set<ConstraintViolation<UserRegistrationDTO>> violations = validator.validate(row.user());
+            if (violations.isEmpty()) {
+                accepted.add(row);
+            } else {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                result.rejected(rejected(row, message));
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // One set-based lookup per column for the whole chunk instead of two exists queries per row
+        Set<String> usernames = accepted.stream().map(row -> row.user().getUsername()).collect(Collectors.toSet());
+        Set<String> emails = accepted.stream().map(row -> row.user().getEmail()).collect(Collectors.toSet());
+        Set<String> existingUsernames = partitioned
+                ? userRepository.findExistingUsernamesViaLookup(usernames)
+                : userRepository.findExistingUsernames(usernames);
+        Set<String> existingEmails = partitioned
+                ? userRepository.findExistingEmailsViaLookup(emails)
+                : userRepository.findExistingEmails(emails);
+
+        Set<String> chunkUsernames = new HashSet<>();
+        Set<String> chunkEmails = new HashSet<>();
+        List<ImportRow> unique = new ArrayList<>(accepted.size());
+        for (ImportRow row : accepted) {
+            if (existingUsernames.contains(row.user().getUsername()) || !chunkUsernames.add(row.user().getUsername())) {
+                result.rejected(rejected(row, "Username already exists"));
+            } else if (existingEmails.contains(row.user().getEmail()) || !chunkEmails.add(row.user().getEmail())) {
+                result.rejected(rejected(row, "Email already exists"));
+            } else {
+                unique.add(row);
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+
+        // Shares the bounded hashing pool with logins and registrations instead of competing with it for the CPUs
+        List<String> hashes;
+        try {
+            hashes = passwordHashingService.encodeAll(unique.stream().map(row -> row.user().getPassword()).toList(), hashingParallelism);
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Bulk import chunk rejected: {}", e.getMessage());
+            unique.forEach(row -> result.rejected(rejected(row, "Password hashing capacity exceeded, retry this row")));
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(unique.size());
+        for (int i = 0; i < unique.size(); i++) {
+            UserRegistrationDTO user = unique.get(i).user();
+            batch.add(new Object[]{user.getUsername(), hashes.get(i), user.getEmail(), now, now, user.getRoleName().name()});
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_USER, batch);
+                userChangeService.recordCreated(unique.stream().map(row -> row.user().getUsername()).toList());
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Bulk import chunk rejected by a concurrent change: {}", e.getMessage());
+            unique.forEach(row -> result.rejected(rejected(row, "Conflicting concurrent change, retry this row")));
+            return;
+        }
+
+        Map<String, String> emailsByUsername = new LinkedHashMap<>();
+        unique.forEach(row -> {
+            usernameFilter.add(row.user().getUsername());
+            emailsByUsername.put(row.user().getUsername(), row.user().getEmail());
+        });
+        userCache.createdAll(emailsByUsername);
+        result.created(unique.size());
+    }
+
+    private Iterator<ParsedRow> jsonRows(InputStream inputStream) throws IOException {
+        // Reads either a top-level JSON array or newline-delimited objects, one element at a time. Each element is bound
+        // separately, so a value of the wrong type rejects that row while malformed JSON still ends the import.
+        MappingIterator<JsonNode> nodes = objectMapper.readerFor(JsonNode.class).readValues(inputStream);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return nodes.hasNext();
+            }
+
+            @Override
+            public ParsedRow next() {
+                JsonNode node = nodes.next();
+                try {
+                    return new ParsedRow(objectMapper.treeToValue(node, UserRegistrationDTO.class), null);
+                } catch (JsonProcessingException e) {
+                    UserRegistrationDTO user = new UserRegistrationDTO();
+                    user.setUsername(node.path("username").isTextual() ? node.get("username").asText() : null);
+                    return new ParsedRow(user, "Invalid value: " + e.getOriginalMessage());
+                }
+            }
+        };
+    }
+
+    private Iterator<ParsedRow> csvRows(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return List.<ParsedRow>of().iterator();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = parseCsvLine(headerLine);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+
+        return new Iterator<>() {
+            private String next = readNonBlank();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public ParsedRow next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> values = parseCsvLine(next);
+                next = readNonBlank();
+
+                UserRegistrationDTO user = new UserRegistrationDTO();
+                user.setUsername(column(values, columns, "username"));
+                user.setPassword(column(values, columns, "password"));
+                user.setEmail(column(values, columns, "email"));
+                String roleName = column(values, columns, "roleName");
+                if (roleName == null || roleName.isBlank()) {
+                    user.setRoleName(RoleName.ROLE_USER);
+                } else if (ROLE_NAMES.contains(roleName)) {
+                    user.setRoleName(RoleName.valueOf(roleName));
+                } else {
+                    return new ParsedRow(user, "roleName must be one of " + ROLE_NAMES);
+                }
+                return new ParsedRow(user, null);
+            }
+
+            private String readNonBlank() {
+                try {
+                    String line;
+                    do {
+                        line = reader.readLine();
+                    } while (line != null && line.isBlank());
+                    return line;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < values.size() ? values.get(index) : null;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static ImportRowResult rejected(ImportRow row, String message) {
+        return new ImportRowResult(row.row(), row.user().getUsername(), "rejected", message);
+    }
+
+    private record ParsedRow(UserRegistrationDTO user, String error) {
+    }
+
+    private record ImportRow(long row, UserRegistrationDTO user, String error) {
+    }
+}
@@ -1,23 +1,32 @@
 package com.master.user_management.service;
 
 import com.master.user_management.dto.UserDTO;
+import com.master.user_management.dto.request.UserPatchDTO;
 import com.master.user_management.dto.request.UserRegistrationDTO;
 import com.master.user_management.dto.request.UserUpdateDTO;
+import com.master.user_management.entity.RoleName;
 import com.master.user_management.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserService {
     User registerUser(UserRegistrationDTO userRegistrationDTO);
     Optional<User> authenticateUser(String username, String password);
     User findUserById(Long id);
     Optional<User> findUserByUsername(String username);
-    User updateUser(Long id, UserUpdateDTO userUpdateDTO);
+    User updateUser(Long id, UserUpdateDTO userUpdateDTO, Set<Long> acceptedVersions);
+    User patchUser(Long id, UserPatchDTO userPatchDTO, Set<Long> acceptedVersions);
+    User changeRole(Long id, RoleName roleName);
     void deleteUserById(Long id);
     List<UserDTO> getAllUsers();
-    Page<User> findAll(Pageable pageable);
+    Page<UserDTO> findAll(Pageable pageable);
+    Slice<UserDTO> findAllAfter(long afterId, int limit);
+    long countUsers();
+    List<UserDTO> searchUsers(String query, SearchMode mode, int limit);
 }
 
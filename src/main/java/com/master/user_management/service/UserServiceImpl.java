@@ -1,25 +1,43 @@
 package com.master.user_management.service;
 
+import com.master.user_management.cache.UserCache;
 import com.master.user_management.dto.UserDTO;
+import com.master.user_management.dto.request.UserPatchDTO;
 import com.master.user_management.dto.request.UserUpdateDTO;
+import com.master.user_management.entity.ChangeType;
 import com.master.user_management.entity.RoleName;
 import com.master.user_management.entity.User;
 import com.master.user_management.dto.request.UserRegistrationDTO;
+import com.master.user_management.exception.HashingCapacityExceededException;
 import com.master.user_management.exception.ResourceNotFoundException;
 import com.master.user_management.repository.UserRepository;
+import com.master.user_management.repository.UserSummary;
+import com.master.user_management.search.UserPrefixIndex;
+import com.master.user_management.security.UsernameFilter;
+import com.master.user_management.util.UniqueConstraints;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Slf4j
 @Service
@@ -27,43 +45,69 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UsernameFilter usernameFilter;
+    private final UserCache userCache;
+    private final UserPrefixIndex userPrefixIndex;
+    private final UserChangeService userChangeService;
+    private final TransactionTemplate transactionTemplate;
+    private final Function<String, Optional<User>> usernameLoader;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordHashingService passwordHashingService,
+                           UsernameFilter usernameFilter, UserCache userCache, UserPrefixIndex userPrefixIndex,
+                           UserChangeService userChangeService, PlatformTransactionManager transactionManager,
+                           @Value("${users.partitioned:false}") boolean partitioned) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.usernameFilter = usernameFilter;
+        this.userCache = userCache;
+        this.userPrefixIndex = userPrefixIndex;
+        this.userChangeService = userChangeService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // On a partitioned table the username index exists per partition, so resolve the id through the lookup table
+        this.usernameLoader = partitioned ? userRepository::findByUsernameViaLookup : userRepository::findByUsername;
     }
 
+    // Hashing waits on the bounded hashing pool, so it runs before the transaction and holds no pooled connection
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "user.service", extraTags = {"operation", "register"}, histogram = true)
     public User registerUser(UserRegistrationDTO userRegistrationDTO) {
-        log.info("Registering new user with username: {}", userRegistrationDTO.getUsername());
+        log.debug("Registering new user with username: {}", userRegistrationDTO.getUsername());
 
         try {
-            // Check if the username or email already exists
-            if (userRepository.existsByUsername(userRegistrationDTO.getUsername())) {
-                log.warn("Username {} is already taken", userRegistrationDTO.getUsername());
-                throw new IllegalArgumentException("Username already exists");
-            }
-
-            if (userRepository.existsByEmail(userRegistrationDTO.getEmail())) {
-                log.warn("Email {} is already registered", userRegistrationDTO.getEmail());
-                throw new IllegalArgumentException("Email already exists");
-            }
-
-            String hashedPassword = passwordEncoder.encode(userRegistrationDTO.getPassword());
+            String hashedPassword = passwordHashingService.encode(userRegistrationDTO.getPassword());
 
             LocalDateTime now = LocalDateTime.now();
             RoleName roleName = userRegistrationDTO.getRoleName();
 
             User user = new User(userRegistrationDTO.getUsername(), hashedPassword, userRegistrationDTO.getEmail(), now, now, roleName);
 
-            User savedUser = userRepository.save(user);
-            log.info("User registered successfully with ID: {}", savedUser.getId());
+            // The unique constraints on username and email reject duplicates, so no exists queries are needed
+            User savedUser = transactionTemplate.execute(status -> {
+                User saved = userRepository.saveAndFlush(user);
+                userChangeService.record(ChangeType.CREATED, saved);
+                return saved;
+            });
+            usernameFilter.add(savedUser.getUsername());
+            userCache.created(savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
+            log.debug("User registered successfully with ID: {}", savedUser.getId());
 
             return savedUser;
+        } catch (DataIntegrityViolationException e) {
+            String duplicateMessage = UniqueConstraints.duplicateMessage(e);
+            if (duplicateMessage == null) {
+                log.error("Error occurred while registering user with username: {}", userRegistrationDTO.getUsername(), e);
+                throw new RuntimeException("User registration failed", e);
+            }
+            log.warn("Registration rejected for username: {}. {}", userRegistrationDTO.getUsername(), duplicateMessage);
+            throw new IllegalArgumentException(duplicateMessage);
         } catch (IllegalArgumentException e) {
             log.error("Validation error during registration for username: {}. Error: {}", userRegistrationDTO.getUsername(), e.getMessage());
             throw e; // Rethrow validation exceptions to be handled by the controller
+        } catch (HashingCapacityExceededException e) {
+            log.warn("Registration rejected for username: {}. {}", userRegistrationDTO.getUsername(), e.getMessage());
+            throw e;
         } catch (Exception e) {
             log.error("Error occurred while registering user with username: {}", userRegistrationDTO.getUsername(), e);
             throw new RuntimeException("User registration failed", e);
@@ -71,60 +115,181 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(UserDTO::new)
-                .collect(Collectors.toList());
+        return userRepository.findAllDTOs();
     }
 
     @Override
-    public Page<User> findAll(Pageable pageable) {
-        return userRepository.findAll(pageable);
+    @Transactional(readOnly = true)
+    public Page<UserDTO> findAll(Pageable pageable) {
+        return userRepository.findAllDTOs(pageable);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Slice<UserDTO> findAllAfter(long afterId, int limit) {
+        // Seeks on the primary key index, so the cost does not grow with the page depth
+        return userRepository.findDTOsAfter(afterId, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countUsers() {
+        return userRepository.count();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserDTO> searchUsers(String query, SearchMode mode, int limit) {
+        if (mode == SearchMode.FUZZY) {
+            return toDTOs(userRepository.searchFuzzy(query, limit));
+        }
+        if (userPrefixIndex.isReady()) {
+            List<String> usernames = userPrefixIndex.findUsernames(query, limit);
+            if (usernames.isEmpty()) {
+                return List.of();
+            }
+            // Keep the index order, which is the order of the matched username or email
+            return userRepository.findDTOsByUsernames(usernames).stream()
+                    .sorted(Comparator.comparingInt(user -> usernames.indexOf(user.getUsername())))
+                    .toList();
+        }
+        return toDTOs(userRepository.searchByPrefix(escapeLike(query.toLowerCase(Locale.ROOT)) + "%", limit));
+    }
+
+    private static List<UserDTO> toDTOs(List<UserSummary> users) {
+        return users.stream()
+                .map(user -> new UserDTO(user.getId(), user.getUsername(), user.getEmail()))
+                .toList();
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // The lookup and the optional rehash write take a connection each only for their own statement, not for the hashing
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Timed(value = "user.service", extraTags = {"operation", "authenticate"}, histogram = true)
     public Optional<User> authenticateUser(String username, String password) {
-        log.info("Authenticating user with username: {}", username);
-        Optional<User> user = userRepository.findByUsername(username);
-        if (user.isPresent() && passwordEncoder.matches(password, user.get().getPassword())) {
-            log.info("Authentication successful for user: {}", username);
+        log.debug("Authenticating user with username: {}", username);
+        boolean listed = usernameFilter.mightContain(username);
+        Optional<User> user = listed || usernameFilter.allowMissRecheck() ? findUserByUsername(username) : Optional.empty();
+        if (!listed && user.isPresent()) {
+            log.info("Username filter was missing user: {}", username);
+            usernameFilter.add(username);
+        }
+        if (user.isEmpty()) {
+            // Keep the response time of an unknown username indistinguishable from a wrong password
+            passwordHashingService.dummyMatch(password);
+        } else if (passwordHashingService.matches(password, user.get().getPassword())) {
+            log.debug("Authentication successful for user: {}", username);
+            upgradePasswordEncoding(user.get(), password);
             return user;
         }
-        log.warn("Authentication failed for user: {}", username);
+        log.debug("Authentication failed for user: {}", username);
         return Optional.empty();
     }
 
+    private void upgradePasswordEncoding(User user, String rawPassword) {
+        if (!passwordHashingService.upgradeEncoding(user.getPassword())) {
+            return;
+        }
+        try {
+            user.setPassword(passwordHashingService.encode(rawPassword));
+            transactionTemplate.executeWithoutResult(status -> userRepository.updatePassword(user.getId(), user.getPassword()));
+            userCache.invalidate(user.getId(), user.getUsername());
+            log.info("Password hash upgraded for user: {}", user.getUsername());
+        } catch (HashingCapacityExceededException e) {
+            log.debug("Skipping password hash upgrade for user: {}. {}", user.getUsername(), e.getMessage());
+        }
+    }
+
+    // Cache hits open no transaction. Misses load in a read-write transaction, which routes to the primary: a lagging
+    // replica would put a just-invalidated row back into the cache
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User findUserById(Long id) {
-        log.info("Finding user by ID: {}", id);
-        return userRepository.findById(id)
+        log.debug("Finding user by ID: {}", id);
+        return userCache.getById(id, key -> transactionTemplate.execute(status -> userRepository.findById(key)))
                 .orElseThrow(() -> {
-                    log.error("User not found with ID: {}", id);
+                    log.debug("User not found with ID: {}", id);
                     return new ResourceNotFoundException("User not found with id " + id);
                 });
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Optional<User> findUserByUsername(String username) {
-        return userRepository.findByUsername(username);
+        return userCache.getByUsername(username, key -> transactionTemplate.execute(status -> usernameLoader.apply(key)));
+    }
+
+    @Override
+    public User updateUser(Long id, UserUpdateDTO userUpdateDTO, Set<Long> acceptedVersions) {
+        log.debug("Updating user with ID: {}", id);
+        return applyChanges(id, userUpdateDTO.getUsername(), userUpdateDTO.getEmail(), acceptedVersions);
     }
 
     @Override
-    public User updateUser(Long id, UserUpdateDTO userUpdateDTO) {
-        log.info("Updating user with ID: {}", id);
+    public User patchUser(Long id, UserPatchDTO userPatchDTO, Set<Long> acceptedVersions) {
+        log.debug("Patching user with ID: {}", id);
+        return applyChanges(id, userPatchDTO.getUsername(), userPatchDTO.getEmail(), acceptedVersions);
+    }
+
+    /**
+     * Applies the non-null values. A request that changes nothing is answered with the current state and writes
+     * nothing, so a retried update succeeds even though the version it was based on is gone. Otherwise a stale
+     * version outside {@code acceptedVersions} is rejected, and the {@code @Version} check at flush catches concurrent writers.
+     * With {@code @DynamicUpdate} the UPDATE only names the columns that changed.
+     */
+    private User applyChanges(Long id, String username, String email, Set<Long> acceptedVersions) {
         try {
-            User user = findUserById(id);
+            User user = userRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + id));
+            boolean usernameChanged = username != null && !username.equals(user.getUsername());
+            boolean emailChanged = email != null && !email.equals(user.getEmail());
+            if (!usernameChanged && !emailChanged) {
+                log.debug("User with ID: {} already up to date", id);
+                return user;
+            }
+            if (acceptedVersions != null && !acceptedVersions.contains(user.getVersion())) {
+                throw new OptimisticLockingFailureException("User with id " + id + " was modified by another request");
+            }
+
+            String previousUsername = user.getUsername();
+            String previousEmail = user.getEmail();
 
-            user.setUsername(userUpdateDTO.getUsername());
-            user.setEmail(userUpdateDTO.getEmail());
+            if (usernameChanged) {
+                user.setUsername(username);
+            }
+            if (emailChanged) {
+                user.setEmail(email);
+            }
             user.setUpdatedAt(LocalDateTime.now());
 
-            User updatedUser = userRepository.save(user);
-            log.info("User with ID: {} updated successfully", id);
+            User updatedUser = userRepository.saveAndFlush(user);
+            userChangeService.record(ChangeType.UPDATED, updatedUser, usernameChanged ? previousUsername : null);
+            // Tokens issued for the old name must not authorise whoever registers it next
+            userCache.changed(id, previousUsername, previousEmail, usernameChanged,
+                    updatedUser.getUsername(), updatedUser.getEmail());
+            usernameFilter.add(updatedUser.getUsername());
+            log.debug("User with ID: {} updated successfully", id);
             return updatedUser;
         } catch (ResourceNotFoundException e) {
-            log.error("User update failed: {}", e.getMessage());
+            log.debug("User update failed: {}", e.getMessage());
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("User update rejected for ID: {}. {}", id, e.getMessage());
             throw e;
+        } catch (DataIntegrityViolationException e) {
+            String duplicateMessage = UniqueConstraints.duplicateMessage(e);
+            if (duplicateMessage == null) {
+                log.error("Database access error occurred while updating user with ID: {}: {}", id, e.getMessage());
+                throw new RuntimeException("An error occurred while updating the user. Please try again later.");
+            }
+            log.warn("User update rejected for ID: {}. {}", id, duplicateMessage);
+            throw new IllegalArgumentException(duplicateMessage);
         } catch (DataAccessException e) {
             log.error("Database access error occurred while updating user with ID: {}: {}", id, e.getMessage());
             throw new RuntimeException("An error occurred while updating the user. Please try again later.");
@@ -135,14 +300,34 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public void deleteUserById(Long id) {
-        log.info("Deleting user with ID: {}", id);
-        if (!userRepository.existsById(id)) {
-            log.error("User not found with ID: {}", id);
-            throw new ResourceNotFoundException("User not found with id " + id);
+    public User changeRole(Long id, RoleName roleName) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id " + id));
+        if (user.getRoleName() == roleName) {
+            return user;
         }
-        userRepository.deleteById(id);
-        log.info("User with ID: {} deleted successfully", id);
+        user.setRoleName(roleName);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        user.setUpdatedAt(LocalDateTime.now());
+        User updatedUser = userRepository.saveAndFlush(user);
+        userChangeService.record(ChangeType.UPDATED, updatedUser);
+        userCache.invalidate(id, updatedUser.getUsername(), updatedUser.getTokenVersion());
+        log.info("Role of user with ID: {} changed to {}", id, roleName);
+        return updatedUser;
+    }
+
+    @Override
+    public void deleteUserById(Long id) {
+        log.debug("Deleting user with ID: {}", id);
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.debug("User not found with ID: {}", id);
+                    return new ResourceNotFoundException("User not found with id " + id);
+                });
+        userRepository.delete(user);
+        userChangeService.record(ChangeType.DELETED, user);
+        userCache.changed(id, user.getUsername(), user.getEmail(), true, null, null);
+        log.debug("User with ID: {} deleted successfully", id);
     }
 }
 
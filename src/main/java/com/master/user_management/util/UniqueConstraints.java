@@ -0,0 +1,36 @@
+package com.master.user_management.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+public final class UniqueConstraints {
+
+    public static final String USERNAME = "uk_users_username";
+    public static final String EMAIL = "uk_users_email";
+
+    private UniqueConstraints() {
+    }
+
+    /**
+     * Maps a unique-constraint violation on the users table to the message the API reports for it,
+     * or returns null when the violation is not a duplicate username or email.
+     */
+    public static String duplicateMessage(DataIntegrityViolationException e) {
+        String constraintName = null;
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                constraintName = violation.getConstraintName();
+                break;
+            }
+        }
+        // Tables created before the constraints were named carry generated names, so fall back to the key detail
+        String detail = e.getMostSpecificCause().getMessage();
+        if (USERNAME.equalsIgnoreCase(constraintName) || (detail != null && detail.contains("(username)"))) {
+            return "Username already exists";
+        }
+        if (EMAIL.equalsIgnoreCase(constraintName) || (detail != null && detail.contains("(email)"))) {
+            return "Email already exists";
+        }
+        return null;
+    }
+}
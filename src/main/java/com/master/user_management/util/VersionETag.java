@@ -0,0 +1,46 @@
+package com.master.user_management.util;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Strong ETags derived from the entity's optimistic-locking version.
+ */
+public final class VersionETag {
+
+    private static final Pattern ENTITY_TAG = Pattern.compile("(W/)?\"([^\"]*)\"");
+
+    private VersionETag() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + (version != null ? version : 0) + "\"";
+    }
+
+    /**
+     * Returns the versions an {@code If-Match} header accepts, or {@code null} if any version is acceptable.
+     * The header may list several tags; tags that are not ours can never match and are left out, so the set
+     * is empty when nothing can match.
+     */
+    public static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        Matcher matcher = ENTITY_TAG.matcher(ifMatch);
+        while (matcher.find()) {
+            // Weak tags never match under the strong comparison If-Match requires
+            if (matcher.group(1) != null) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(matcher.group(2)));
+            } catch (NumberFormatException e) {
+                // Not one of ours
+            }
+        }
+        return versions;
+    }
+}
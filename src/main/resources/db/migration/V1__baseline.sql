@@ -0,0 +1,18 @@
+-- The schema as the original ddl-auto=update setup created it. Existing databases are baselined at this version and
+-- brought up to date by the later migrations. Hibernate gave the unique constraints generated names; V2 renames them.
+CREATE TABLE roles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    role_name VARCHAR(255) NOT NULL UNIQUE CHECK (role_name IN ('ROLE_USER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    role_name VARCHAR(255) CHECK (role_name IN ('ROLE_USER', 'ROLE_ADMIN'))
+);
+CREATE INDEX idx_username ON users (username);
+CREATE INDEX idx_email ON users (email);
@@ -0,0 +1,23 @@
+-- Give the username and email unique constraints the names the application maps to duplicate errors. A database that
+-- ran a later ddl-auto build may already have the named constraint next to the generated one, which is then dropped.
+DO $$
+DECLARE
+    c RECORD;
+    target TEXT;
+BEGIN
+    FOR c IN
+        SELECT con.conname, att.attname
+        FROM pg_constraint con
+        JOIN pg_attribute att ON att.attrelid = con.conrelid AND att.attnum = con.conkey[1]
+        WHERE con.conrelid = 'users'::regclass AND con.contype = 'u' AND cardinality(con.conkey) = 1
+          AND att.attname IN ('username', 'email')
+    LOOP
+        target := 'uk_users_' || c.attname;
+        CONTINUE WHEN c.conname = target;
+        IF EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'users'::regclass AND conname = target) THEN
+            EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', c.conname);
+        ELSE
+            EXECUTE format('ALTER TABLE users RENAME CONSTRAINT %I TO %I', c.conname, target);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,2 @@
+-- Bumped on role changes; access tokens carrying an older version are rejected
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER DEFAULT 0 NOT NULL;
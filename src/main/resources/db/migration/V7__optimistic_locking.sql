@@ -0,0 +1,2 @@
+-- JPA @Version column behind the user ETags
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
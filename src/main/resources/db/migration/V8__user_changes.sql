@@ -0,0 +1,14 @@
+-- Outbox and change feed: sequences are assigned by the relay at publish time
+CREATE TABLE IF NOT EXISTS user_changes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sequence BIGINT,
+    user_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL CHECK (change_type IN ('CREATED', 'UPDATED', 'DELETED')),
+    username VARCHAR(255),
+    email VARCHAR(255),
+    occurred_at TIMESTAMP(6) NOT NULL,
+    published_at TIMESTAMP(6),
+    CONSTRAINT uk_user_changes_sequence UNIQUE (sequence)
+);
+CREATE SEQUENCE IF NOT EXISTS user_change_feed_seq;
+CREATE INDEX IF NOT EXISTS idx_user_changes_unpublished ON user_changes (id) WHERE published_at IS NULL;
@@ -0,0 +1,2 @@
+-- The name a user had before a rename; replicas starting up reject tokens still carrying it
+ALTER TABLE user_changes ADD COLUMN IF NOT EXISTS previous_username VARCHAR(255);
@@ -0,0 +1,85 @@
+-- Opt-in through the "partitioned" profile; needs PostgreSQL 12 or later. Rebuilds users as a table hash-partitioned
+-- on id. A unique index on a partitioned table must contain the partition key, so global uniqueness of username and
+-- email moves to lookup tables that a trigger keeps in step; their constraints keep the names the application maps
+-- to duplicate errors. The table is rewritten in one transaction, so run it in a maintenance window on large data.
+
+CREATE SEQUENCE users_partitioned_id_seq;
+
+CREATE TABLE users_partitioned (
+    id BIGINT NOT NULL DEFAULT nextval('users_partitioned_id_seq'),
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    role_name VARCHAR(255) CHECK (role_name IN ('ROLE_USER', 'ROLE_ADMIN')),
+    token_version INTEGER DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+) PARTITION BY HASH (id);
+
+DO $$
+BEGIN
+    FOR i IN 0..15 LOOP
+        EXECUTE format('CREATE TABLE users_p%s PARTITION OF users_partitioned FOR VALUES WITH (MODULUS 16, REMAINDER %s)',
+                       lpad(i::text, 2, '0'), i);
+    END LOOP;
+END $$;
+
+-- Copy before any index exists, then continue the id sequence where the old identity column stopped
+INSERT INTO users_partitioned (id, username, password, email, created_at, updated_at, role_name, token_version, version)
+SELECT id, username, password, email, created_at, updated_at, role_name, token_version, version FROM users;
+SELECT setval('users_partitioned_id_seq', coalesce((SELECT max(id) FROM users), 0) + 1, false);
+
+-- Also drops the refresh_tokens foreign key, which is recreated below
+DROP TABLE users CASCADE;
+ALTER TABLE users_partitioned RENAME TO users;
+ALTER SEQUENCE users_partitioned_id_seq RENAME TO users_id_seq;
+ALTER SEQUENCE users_id_seq OWNED BY users.id;
+
+ALTER TABLE users ADD CONSTRAINT users_pkey PRIMARY KEY (id);
+CREATE INDEX idx_username ON users (username);
+CREATE INDEX idx_email ON users (email);
+CREATE INDEX idx_users_username_prefix ON users (lower(username) text_pattern_ops);
+CREATE INDEX idx_users_email_prefix ON users (lower(email) text_pattern_ops);
+CREATE INDEX idx_users_username_trgm ON users USING gin (username gin_trgm_ops);
+CREATE INDEX idx_users_email_trgm ON users USING gin (email gin_trgm_ops);
+
+ALTER TABLE refresh_tokens
+    ADD CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE;
+
+-- Global lookup tables: one index probe yields the id, and the id selects a single partition
+CREATE TABLE user_usernames (
+    username VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    CONSTRAINT uk_users_username PRIMARY KEY (username) INCLUDE (user_id)
+);
+CREATE TABLE user_emails (
+    email VARCHAR(255) NOT NULL,
+    user_id BIGINT NOT NULL,
+    CONSTRAINT uk_users_email PRIMARY KEY (email) INCLUDE (user_id)
+);
+INSERT INTO user_usernames (username, user_id) SELECT username, id FROM users;
+INSERT INTO user_emails (email, user_id) SELECT email, id FROM users;
+
+CREATE FUNCTION users_sync_lookup() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO user_usernames (username, user_id) VALUES (NEW.username, NEW.id);
+        INSERT INTO user_emails (email, user_id) VALUES (NEW.email, NEW.id);
+    ELSIF TG_OP = 'UPDATE' THEN
+        IF NEW.username IS DISTINCT FROM OLD.username THEN
+            UPDATE user_usernames SET username = NEW.username WHERE username = OLD.username;
+        END IF;
+        IF NEW.email IS DISTINCT FROM OLD.email THEN
+            UPDATE user_emails SET email = NEW.email WHERE email = OLD.email;
+        END IF;
+    ELSE
+        DELETE FROM user_usernames WHERE username = OLD.username;
+        DELETE FROM user_emails WHERE email = OLD.email;
+    END IF;
+    RETURN NULL;
+END $$;
+
+CREATE TRIGGER users_sync_lookup
+    AFTER INSERT OR DELETE OR UPDATE OF username, email ON users
+    FOR EACH ROW EXECUTE FUNCTION users_sync_lookup();
@@ -0,0 +1,33 @@
+package com.master.user_management.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserCacheEventTest {
+
+    @Test
+    void roundTripsNamesContainingSeparators() {
+        UserCacheEvent event = new UserCacheEvent("node", 7L, "old|name%7C", "old@example.com",
+                4, true, "new|name", "new|mail@example.com");
+
+        assertThat(UserCacheEvent.fromPayload(event.toPayload())).isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsEventsWithoutOptionalFields() {
+        UserCacheEvent event = new UserCacheEvent("node", null, null, null, null, false, "kofi", "kofi@example.com");
+
+        UserCacheEvent parsed = UserCacheEvent.fromPayload(event.toPayload());
+
+        assertThat(parsed).isEqualTo(event);
+        assertThat(parsed.isClearAll()).isFalse();
+    }
+
+    @Test
+    void rejectsPayloadsWithAnotherFieldCount() {
+        assertThatThrownBy(() -> UserCacheEvent.fromPayload("node|7|2|kofi")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> UserCacheEvent.fromPayload("node|7|kofi")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package com.master.user_management.cache;
+
+import com.master.user_management.entity.RoleName;
+import com.master.user_management.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+
+    private final UserCache cache = new UserCache(new InJvmCacheInvalidationBroadcaster(), new SimpleMeterRegistry(),
+            100, Duration.ofMinutes(5));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void servesRepeatedLookupsFromTheCache() {
+        cache.getById(1L, id -> load(user(1L, "kofi", 0L)));
+        Optional<User> byId = cache.getById(1L, id -> load(user(1L, "kofi", 0L)));
+        Optional<User> byUsername = cache.getByUsername("kofi", username -> load(user(1L, "kofi", 0L)));
+
+        assertThat(byId).map(User::getUsername).contains("kofi");
+        assertThat(byUsername).map(User::getId).contains(1L);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void handsOutCopies() {
+        cache.getById(1L, id -> load(user(1L, "kofi", 0L)));
+        cache.getById(1L, id -> Optional.empty()).orElseThrow().setEmail("changed@example.com");
+
+        assertThat(cache.getById(1L, id -> Optional.empty())).map(User::getEmail).contains("kofi@example.com");
+    }
+
+    @Test
+    void doesNotCacheALoadThatOverlapsAnInvalidation() {
+        // The row is read, then the change commits and evicts before the loader returns
+        cache.getById(1L, id -> {
+            Optional<User> stale = load(user(1L, "kofi", 0L));
+            cache.invalidate(1L, "kofi");
+            return stale;
+        });
+
+        Optional<User> reloaded = cache.getById(1L, id -> load(user(1L, "kofi", 1L)));
+
+        assertThat(reloaded).map(User::getVersion).contains(1L);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void doesNotCacheAUsernameLoadThatOverlapsAnInvalidation() {
+        cache.getByUsername("kofi", username -> {
+            Optional<User> stale = load(user(1L, "kofi", 0L));
+            cache.invalidate(1L, "kofi");
+            return stale;
+        });
+
+        assertThat(cache.getByUsername("kofi", username -> Optional.empty())).isEmpty();
+    }
+
+    @Test
+    void invalidationDropsBothLookups() {
+        cache.getById(1L, id -> load(user(1L, "kofi", 0L)));
+
+        cache.invalidate(1L, "kofi");
+
+        assertThat(cache.getById(1L, id -> Optional.empty())).isEmpty();
+        assertThat(cache.getByUsername("kofi", username -> Optional.empty())).isEmpty();
+    }
+
+    private Optional<User> load(User user) {
+        loads.incrementAndGet();
+        return Optional.of(user);
+    }
+
+    private static User user(Long id, String username, Long version) {
+        LocalDateTime now = LocalDateTime.now();
+        User user = new User(username, "hash", username + "@example.com", now, now, RoleName.ROLE_USER);
+        user.setId(id);
+        user.setVersion(version);
+        return user;
+    }
+}
@@ -0,0 +1,86 @@
+package com.master.user_management.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtClaimsCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final JwtClaimsCache cache = new JwtClaimsCache(meterRegistry, 100);
+
+    @Test
+    void countsHitsAndMisses() {
+        Claims claims = claims("kofi", 60_000);
+
+        assertThat(cache.get("token")).isNull();
+        cache.put("token", claims);
+
+        assertThat(cache.get("token")).isSameAs(claims);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.claims.cache.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsEntriesWhenTheirTokenExpires() throws InterruptedException {
+        cache.put("short", claims("kofi", 50));
+        cache.put("long", claims("ama", 60_000));
+
+        Thread.sleep(100);
+
+        assertThat(cache.get("short")).isNull();
+        assertThat(cache.get("long")).isNotNull();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsTokensThatAreAlreadyExpiredOrNeverExpire() {
+        cache.put("expired", claims("kofi", -1_000));
+        cache.put("unbounded", Jwts.claims().setSubject("ama"));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void staysWithinItsMaximumSize() {
+        JwtClaimsCache small = new JwtClaimsCache(new SimpleMeterRegistry(), 10);
+
+        for (int i = 0; i < 100; i++) {
+            small.put("token" + i, claims("user" + i, 60_000));
+        }
+
+        assertThat(small.size()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void invalidatesSingleTokensAndEverything() {
+        cache.put("a", claims("kofi", 60_000));
+        cache.put("b", claims("ama", 60_000));
+
+        cache.invalidate("a");
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNotNull();
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void cachesNothingWhenDisabled() {
+        JwtClaimsCache disabled = new JwtClaimsCache(new SimpleMeterRegistry(), 0);
+
+        disabled.put("token", claims("kofi", 60_000));
+
+        assertThat(disabled.get("token")).isNull();
+    }
+
+    private static Claims claims(String subject, long expiresInMillis) {
+        return Jwts.claims().setSubject(subject).setExpiration(new Date(System.currentTimeMillis() + expiresInMillis));
+    }
+}
@@ -0,0 +1,128 @@
+package com.master.user_management.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    private static final String CURRENT_SECRET = "mysecretkey12233333333333jshdjhsdD3232323233";
+    private static final String PREVIOUS_SECRET = "cHJldmlvdXNrZXlwcmV2aW91c2tleXByZXZpb3Vza2V5MTI=";
+    private static final String NEW_SECRET = "bmV3a2V5bmV3a2V5bmV3a2V5bmV3a2V5bmV3a2V5bmV3a2V5MTI=";
+    private static final List<GrantedAuthority> ROLES = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
+    @Test
+    void signsWithTheCurrentKeyAndVerifiesPreviousKeys() {
+        JwtTokenProvider provider = provider("default", List.of("old:" + PREVIOUS_SECRET));
+        String previous = token("old", PREVIOUS_SECRET);
+
+        String current = provider.createToken("kofi", ROLES, 3);
+
+        assertThat(Jwts.parserBuilder().build().parse(current.substring(0, current.lastIndexOf('.') + 1)).getHeader())
+                .containsEntry(JwsHeader.KEY_ID, "default");
+        assertThat(provider.parseClaims(current).getSubject()).isEqualTo("kofi");
+        assertThat(provider.getTokenVersion(provider.parseClaims(current))).isEqualTo(3);
+        assertThat(provider.getAuthorities(provider.parseClaims(current))).containsExactlyElementsOf(ROLES);
+        assertThat(provider.parseClaims(previous).getSubject()).isEqualTo("kofi");
+    }
+
+    @Test
+    void keepsVerifyingTokensOfTheRotatedOutKey() {
+        JwtTokenProvider provider = provider("default", List.of());
+        String beforeRotation = provider.createToken("kofi", ROLES);
+
+        provider.rotateKey("next", NEW_SECRET);
+        String afterRotation = provider.createToken("kofi", ROLES);
+
+        assertThat(provider.parseClaims(beforeRotation).getSubject()).isEqualTo("kofi");
+        assertThat(provider.parseClaims(afterRotation).getSubject()).isEqualTo("kofi");
+        assertThat(token("next", NEW_SECRET)).satisfies(token -> assertThat(provider.validateToken(token)).isTrue());
+        assertThatThrownBy(() -> provider.rotateKey("next", NEW_SECRET)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void verifiesAnAddedKeyBeforeSigningWithIt() {
+        JwtTokenProvider provider = provider("default", List.of());
+
+        provider.addVerificationKey("next", NEW_SECRET);
+
+        assertThat(provider.getCurrentKeyId()).isEqualTo("default");
+        assertThat(provider.getVerificationKeyIds()).containsExactly("default", "next");
+        assertThat(provider.parseClaims(token("next", NEW_SECRET)).getSubject()).isEqualTo("kofi");
+
+        provider.activateKey("next");
+
+        assertThat(provider.getCurrentKeyId()).isEqualTo("next");
+        assertThatThrownBy(() -> provider.activateKey("unknown")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsRetiredAndUnknownKeyIds() {
+        JwtTokenProvider provider = provider("default", List.of("old:" + PREVIOUS_SECRET));
+        String previous = token("old", PREVIOUS_SECRET);
+
+        provider.retireKey("old");
+
+        assertThatThrownBy(() -> provider.parseClaims(previous)).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> provider.parseClaims(token("unknown", CURRENT_SECRET))).isInstanceOf(SignatureException.class);
+        assertThatThrownBy(() -> provider.retireKey("default")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void verifiesTokensWithoutKeyIdAgainstTheUnversionedKeyAfterRotation() {
+        JwtTokenProvider provider = provider("default", List.of());
+        String legacy = token(null, CURRENT_SECRET);
+
+        provider.rotateKey("next", NEW_SECRET);
+
+        assertThat(provider.parseClaims(legacy).getSubject()).isEqualTo("kofi");
+        assertThatThrownBy(() -> provider.parseClaims(token(null, NEW_SECRET))).isInstanceOf(SignatureException.class);
+
+        provider.retireKey("default");
+        assertThatThrownBy(() -> provider.parseClaims(legacy)).isInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    void rejectsTokensWithoutKeyIdWhenNoUnversionedKeyIsConfigured() {
+        JwtTokenProvider provider = provider("default", List.of());
+        ReflectionTestUtils.setField(provider, "unversionedKeyId", "");
+        ReflectionTestUtils.invokeMethod(provider, "init");
+
+        assertThatThrownBy(() -> provider.parseClaims(token(null, CURRENT_SECRET))).isInstanceOf(SignatureException.class);
+    }
+
+    private static JwtTokenProvider provider(String keyId, List<String> previousKeys) {
+        JwtTokenProvider provider = new JwtTokenProvider(new JwtClaimsCache(new SimpleMeterRegistry(), 100), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "secretKey", CURRENT_SECRET);
+        ReflectionTestUtils.setField(provider, "keyId", keyId);
+        ReflectionTestUtils.setField(provider, "previousKeys", previousKeys);
+        ReflectionTestUtils.setField(provider, "unversionedKeyId", keyId);
+        ReflectionTestUtils.setField(provider, "expirationTime", 60_000L);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static String token(String kid, String secret) {
+        var builder = Jwts.builder()
+                .setSubject("kofi")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        if (kid != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, kid);
+        }
+        return builder.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256).compact();
+    }
+}
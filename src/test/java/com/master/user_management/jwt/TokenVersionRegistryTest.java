@@ -0,0 +1,79 @@
+package com.master.user_management.jwt;
+
+import com.master.user_management.cache.InJvmCacheInvalidationBroadcaster;
+import com.master.user_management.cache.UserCacheEvent;
+import com.master.user_management.repository.UserChangeRepository;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.repository.UserTokenVersion;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenVersionRegistryTest {
+
+    private final InJvmCacheInvalidationBroadcaster broadcaster = new InJvmCacheInvalidationBroadcaster();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserChangeRepository userChangeRepository = mock(UserChangeRepository.class);
+    private final TokenVersionRegistry registry = new TokenVersionRegistry(broadcaster, userRepository, userChangeRepository, 900_000L);
+
+    @Test
+    void rejectsVersionsBelowABroadcastBump() {
+        broadcaster.publish(new UserCacheEvent("node", 1L, "kofi", 2));
+
+        assertThat(registry.isCurrent("kofi", 1, new Date())).isFalse();
+        assertThat(registry.isCurrent("kofi", 2, new Date())).isTrue();
+        assertThat(registry.isCurrent("ama", 0, new Date())).isTrue();
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeTheUsernameWasRetired() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 1000);
+
+        broadcaster.publish(new UserCacheEvent("node", 1L, "kofi", null, null, true, null, null));
+
+        assertThat(registry.isCurrent("kofi", 0, issuedBefore)).isFalse();
+        // Whoever registers the name next starts at version 0 again
+        assertThat(registry.isCurrent("kofi", 0, new Date(System.currentTimeMillis() + 1000))).isTrue();
+    }
+
+    @Test
+    void loadsRecentBumpsAndRetirementsFromTheDatabase() {
+        when(userRepository.findTokenVersionsChangedSince(any())).thenReturn(List.of(tokenVersion("kofi", 3)));
+        when(userChangeRepository.findUsernamesRetiredSince(any())).thenReturn(List.of("ama"));
+
+        registry.start();
+
+        assertThat(registry.isCurrent("kofi", 2, new Date())).isFalse();
+        assertThat(registry.isCurrent("ama", 0, new Date(System.currentTimeMillis() - 1000))).isFalse();
+    }
+
+    @Test
+    void reloadsAfterAMissedInvalidationWindow() {
+        when(userRepository.findTokenVersionsChangedSince(any())).thenReturn(List.of());
+        when(userChangeRepository.findUsernamesRetiredSince(any())).thenReturn(List.of("kofi"));
+
+        broadcaster.publish(new UserCacheEvent(null, null, null));
+
+        assertThat(registry.isCurrent("kofi", 0, new Date(System.currentTimeMillis() - 1000))).isFalse();
+    }
+
+    private static UserTokenVersion tokenVersion(String username, int tokenVersion) {
+        return new UserTokenVersion() {
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public int getTokenVersion() {
+                return tokenVersion;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package com.master.user_management.outbox;
+
+import com.master.user_management.dto.response.UserChangeDTO;
+import com.master.user_management.entity.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.tools.SimpleResultSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:outbox;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<UserChangeDTO>> publishedBatches = new ArrayList<>();
+    private RuntimeException sinkFailure;
+
+    @BeforeEach
+    void setUp() {
+        PostgresFunctions.lockAvailable = true;
+        jdbcTemplate.execute("""
+                CREATE TABLE user_changes (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    sequence BIGINT UNIQUE,
+                    user_id BIGINT NOT NULL,
+                    change_type VARCHAR(16) NOT NULL,
+                    username VARCHAR(255),
+                    email VARCHAR(255),
+                    occurred_at TIMESTAMP(6) NOT NULL,
+                    published_at TIMESTAMP(6)
+                )
+                """);
+        jdbcTemplate.execute("CREATE SEQUENCE user_change_feed_seq");
+        jdbcTemplate.execute("CREATE ALIAS pg_try_advisory_xact_lock FOR \"" + PostgresFunctions.class.getName() + ".tryAdvisoryXactLock\"");
+        jdbcTemplate.execute("CREATE ALIAS generate_series FOR \"" + PostgresFunctions.class.getName() + ".generateSeries\"");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void publishesInBatchesWithAscendingSequencesAndMarksThemPublished() {
+        for (int i = 1; i <= 5; i++) {
+            recordChange(i, ChangeType.CREATED);
+        }
+
+        relay(2).relay();
+
+        assertThat(publishedBatches).extracting(List::size).containsExactly(2, 2, 1);
+        List<UserChangeDTO> published = publishedBatches.stream().flatMap(List::stream).toList();
+        assertThat(published).extracting(UserChangeDTO::getUserId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(published).extracting(UserChangeDTO::getSequence).isSorted().doesNotHaveDuplicates();
+        assertThat(unpublishedCount()).isZero();
+        assertThat(meterRegistry.counter("outbox.relay.published").count()).isEqualTo(5);
+    }
+
+    @Test
+    void publishesNothingWhileAnotherReplicaHoldsTheLock() {
+        recordChange(1, ChangeType.UPDATED);
+        PostgresFunctions.lockAvailable = false;
+
+        relay(10).relay();
+
+        assertThat(publishedBatches).isEmpty();
+        assertThat(unpublishedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void retriesTheWholeBatchWhenTheSinkFails() {
+        recordChange(1, ChangeType.CREATED);
+        recordChange(2, ChangeType.DELETED);
+        OutboxRelay relay = relay(10);
+        sinkFailure = new IllegalStateException("sink unavailable");
+
+        relay.relay();
+
+        assertThat(unpublishedCount()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM user_changes WHERE sequence IS NOT NULL", Integer.class)).isZero();
+
+        sinkFailure = null;
+        relay.relay();
+
+        assertThat(publishedBatches).hasSize(2);
+        assertThat(publishedBatches.get(1)).extracting(UserChangeDTO::getChangeType)
+                .containsExactly(ChangeType.CREATED, ChangeType.DELETED);
+        assertThat(unpublishedCount()).isZero();
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        ChangeSink changeSink = changes -> {
+            publishedBatches.add(List.copyOf(changes));
+            if (sinkFailure != null) {
+                throw sinkFailure;
+            }
+        };
+        return new OutboxRelay(dataSource, new DataSourceTransactionManager(dataSource), changeSink, meterRegistry, batchSize);
+    }
+
+    private void recordChange(long userId, ChangeType changeType) {
+        jdbcTemplate.update("INSERT INTO user_changes (user_id, change_type, username, email, occurred_at) VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP)",
+                userId, changeType.name(), "user" + userId, "user" + userId + "@example.com");
+    }
+
+    private int unpublishedCount() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM user_changes WHERE published_at IS NULL", Integer.class);
+    }
+
+    public static class PostgresFunctions {
+
+        static volatile boolean lockAvailable = true;
+
+        public static boolean tryAdvisoryXactLock(long lockId) {
+            return lockAvailable;
+        }
+
+        public static ResultSet generateSeries(long start, long stop) {
+            SimpleResultSet resultSet = new SimpleResultSet();
+            resultSet.addColumn("generate_series", Types.BIGINT, 19, 0);
+            for (long value = start; value <= stop; value++) {
+                resultSet.addRow(value);
+            }
+            return resultSet;
+        }
+    }
+}
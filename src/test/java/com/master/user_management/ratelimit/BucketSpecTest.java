@@ -0,0 +1,30 @@
+package com.master.user_management.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class BucketSpecTest {
+
+    @Test
+    void parsesCapacityAndPeriod() {
+        BucketSpec spec = BucketSpec.parse(" 20 / PT1M ");
+
+        assertThat(spec).isEqualTo(new BucketSpec(20, Duration.ofMinutes(1)));
+        assertThat(spec.tokensPerSecond()).isCloseTo(20 / 60.0, offset(1e-9));
+        assertThat(spec).hasToString("20/PT1M");
+    }
+
+    @Test
+    void rejectsMalformedSpecs() {
+        assertThatThrownBy(() -> BucketSpec.parse("20")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BucketSpec.parse("/PT1M")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BucketSpec.parse("0/PT1M")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BucketSpec.parse("5/PT0S")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> BucketSpec.parse("5/one-minute")).isInstanceOf(RuntimeException.class);
+    }
+}
@@ -0,0 +1,38 @@
+package com.master.user_management.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+
+    @Test
+    void allowsTheCapacityThenReportsTheWait() {
+        BucketSpec spec = new BucketSpec(2, Duration.ofMinutes(1));
+
+        assertThat(store.tryConsume("key", spec)).isZero();
+        assertThat(store.tryConsume("key", spec)).isZero();
+        // One token refills every 30 seconds
+        assertThat(store.tryConsume("key", spec)).isBetween(29L, 30L);
+        assertThat(store.tryConsume("other", spec)).isZero();
+    }
+
+    @Test
+    void refillsOverThePeriodAndPurgesIdleBuckets() throws InterruptedException {
+        BucketSpec spec = new BucketSpec(2, Duration.ofMillis(100));
+        store.tryConsume("key", spec);
+        store.tryConsume("key", spec);
+        assertThat(store.tryConsume("key", spec)).isPositive();
+
+        Thread.sleep(120);
+
+        assertThat(store.tryConsume("key", spec)).isZero();
+        Thread.sleep(120);
+        store.purgeIdle();
+        assertThat(store.size()).isZero();
+    }
+}
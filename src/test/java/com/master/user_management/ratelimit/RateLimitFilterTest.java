@@ -0,0 +1,93 @@
+package com.master.user_management.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimiter(new InMemoryRateLimitStore(), new SimpleMeterRegistry(), true,
+                    "", "1/PT1M", "", "", "", ""),
+            new ObjectMapper());
+
+    @Test
+    void replaysTheInspectedBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(login("{\"username\":\"kofi\",\"password\":\"secret\"}"), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest forwarded = (HttpServletRequest) chain.getRequest();
+        ServletInputStream body = forwarded.getInputStream();
+        assertThat(body.isFinished()).isFalse();
+        assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{\"username\":\"kofi\",\"password\":\"secret\"}");
+        assertThat(body.isFinished()).isTrue();
+    }
+
+    @Test
+    void limitsByTheUsernameInTheBody() throws Exception {
+        filter.doFilter(login("{\"username\":\"kofi\"}"), new MockHttpServletResponse(), new MockFilterChain());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(login("{\"username\":\"KOFI\"}"), response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isNotNull();
+    }
+
+    @Test
+    void refusesOversizedBodies() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(login("{\"username\":\"" + "x".repeat(20_000) + "\"}"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void notifiesAsynchronousReaders() {
+        RateLimitFilter.BodyInputStream body = new RateLimitFilter.BodyInputStream("abc".getBytes(StandardCharsets.UTF_8));
+        List<String> events = new ArrayList<>();
+
+        body.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                events.add("data:" + new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onAllDataRead() {
+                events.add("done");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                events.add("error");
+            }
+        });
+
+        assertThat(events).containsExactly("data:abc", "done");
+    }
+
+    private static MockHttpServletRequest login(String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
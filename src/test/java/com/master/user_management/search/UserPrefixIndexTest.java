@@ -0,0 +1,86 @@
+package com.master.user_management.search;
+
+import com.master.user_management.cache.InJvmCacheInvalidationBroadcaster;
+import com.master.user_management.cache.UserCacheEvent;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.repository.UserSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserPrefixIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final InJvmCacheInvalidationBroadcaster broadcaster = new InJvmCacheInvalidationBroadcaster();
+    private final UserPrefixIndex index = new UserPrefixIndex(userRepository, broadcaster, mock(PlatformTransactionManager.class), true);
+
+    @Test
+    void findsLoadedUsersByUsernameAndEmailPrefix() {
+        when(userRepository.streamAllSummaries()).thenReturn(Stream.of(summary(1L, "kofi", "k.mensah@example.com")));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.findUsernames("KO", 10)).containsExactly("kofi");
+        assertThat(index.findUsernames("k.m", 10)).containsExactly("kofi");
+    }
+
+    @Test
+    void followsBroadcastChanges() {
+        when(userRepository.streamAllSummaries()).thenReturn(Stream.of(summary(1L, "kofi", "kofi@example.com")));
+        index.rebuild();
+
+        broadcaster.publish(new UserCacheEvent("other-node", 2L, null, null, null, false, "kojo", "kojo@example.com"));
+        broadcaster.publish(new UserCacheEvent("other-node", 1L, "kofi", "kofi@example.com", null, true,
+                "ama", "ama@example.com"));
+
+        assertThat(index.findUsernames("ko", 10)).containsExactly("kojo");
+        assertThat(index.findUsernames("am", 10)).containsExactly("ama");
+    }
+
+    @Test
+    void ignoresEventsWithoutEmails() {
+        when(userRepository.streamAllSummaries()).thenReturn(Stream.of(summary(1L, "kofi", "kofi@example.com")));
+        index.rebuild();
+
+        broadcaster.publish(new UserCacheEvent("other-node", 1L, "kofi", 3));
+
+        assertThat(index.findUsernames("kofi", 10)).containsExactly("kofi");
+    }
+
+    @Test
+    void appliesChangesMadeDuringTheLoadOnTopOfIt() {
+        // The rename commits while the stream is still handing out the old row
+        when(userRepository.streamAllSummaries()).thenReturn(Stream.of(summary(1L, "kofi", "kofi@example.com"))
+                .peek(user -> broadcaster.publish(new UserCacheEvent("other-node", 1L, "kofi", "kofi@example.com",
+                        null, true, "kwame", "kofi@example.com"))));
+
+        index.rebuild();
+
+        assertThat(index.findUsernames("k", 10)).containsExactly("kwame");
+    }
+
+    private static UserSummary summary(Long id, String username, String email) {
+        return new UserSummary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public String getEmail() {
+                return email;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.master.user_management.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoginAttemptServiceTest {
+
+    private final LoginAttemptService service = new LoginAttemptService(3, 5, Duration.ofMinutes(15), Duration.ofMinutes(15), 100);
+
+    @Test
+    void locksUsernameOnceItReachesItsLimit() {
+        service.loginFailed("kofi", "10.0.0.1");
+        service.loginFailed("kofi", "10.0.0.2");
+        assertThat(service.lockoutRemainingSeconds("kofi", "10.0.0.3")).isZero();
+
+        service.loginFailed("kofi", "10.0.0.3");
+
+        assertThat(service.lockoutRemainingSeconds("kofi", "10.0.0.4")).isBetween(1L, 900L);
+        assertThat(service.lockoutRemainingSeconds("ama", "10.0.0.4")).isZero();
+    }
+
+    @Test
+    void locksIpAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            service.loginFailed("user" + i, "10.0.0.1");
+        }
+
+        assertThat(service.lockoutRemainingSeconds("someone-else", "10.0.0.1")).isPositive();
+        assertThat(service.lockoutRemainingSeconds("someone-else", "10.0.0.2")).isZero();
+    }
+
+    @Test
+    void successfulLoginClearsUsernameFailures() {
+        service.loginFailed("kofi", "10.0.0.1");
+        service.loginFailed("kofi", "10.0.0.1");
+        service.loginSucceeded("kofi");
+        service.loginFailed("kofi", "10.0.0.1");
+
+        assertThat(service.lockoutRemainingSeconds("kofi", "10.0.0.2")).isZero();
+    }
+
+    @Test
+    void failuresOutsideTheWindowDoNotAccumulate() {
+        LoginAttemptService expiring = new LoginAttemptService(2, 50, Duration.ZERO, Duration.ofMinutes(15), 100);
+
+        expiring.loginFailed("kofi", "10.0.0.1");
+        expiring.loginFailed("kofi", "10.0.0.1");
+
+        assertThat(expiring.lockoutRemainingSeconds("kofi", "10.0.0.1")).isZero();
+    }
+
+    @Test
+    void ignoresMissingKeys() {
+        service.loginFailed(null, null);
+        service.loginSucceeded(null);
+
+        assertThat(service.lockoutRemainingSeconds(null, null)).isZero();
+    }
+}
@@ -0,0 +1,85 @@
+package com.master.user_management.security;
+
+import com.master.user_management.cache.InJvmCacheInvalidationBroadcaster;
+import com.master.user_management.cache.UserCacheEvent;
+import com.master.user_management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final InJvmCacheInvalidationBroadcaster broadcaster = new InJvmCacheInvalidationBroadcaster();
+
+    @Test
+    void reportsEveryNameAsPossiblyPresentUntilLoaded() {
+        UsernameFilter filter = filter(1000, 0.01);
+
+        assertThat(filter.mightContain("unknown")).isTrue();
+    }
+
+    @Test
+    void containsLoadedAndAddedNames() {
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.of("kofi", "ama"));
+        UsernameFilter filter = filter(1000, 0.01);
+
+        filter.rebuild();
+        filter.add("kwesi");
+
+        assertThat(filter.mightContain("kofi")).isTrue();
+        assertThat(filter.mightContain("ama")).isTrue();
+        assertThat(filter.mightContain("kwesi")).isTrue();
+    }
+
+    @Test
+    void learnsNamesFromOtherReplicas() {
+        when(userRepository.streamAllUsernames()).thenReturn(Stream.empty());
+        UsernameFilter filter = filter(1000, 0.01);
+        filter.rebuild();
+
+        broadcaster.publish(new UserCacheEvent("other-node", 1L, null, null, null, false, "kofi", "kofi@example.com"));
+        broadcaster.publish(new UserCacheEvent("other-node", 2L, "ama", "ama@example.com", null, true,
+                "yaa", "ama@example.com"));
+
+        assertThat(filter.mightContain("kofi")).isTrue();
+        assertThat(filter.mightContain("yaa")).isTrue();
+    }
+
+    @Test
+    void limitsRechecksOfRejectedNames() {
+        UsernameFilter filter = filter(1000, 0.01);
+
+        long allowed = IntStream.range(0, 100).filter(i -> filter.allowMissRecheck()).count();
+
+        // The window may roll over once during the loop
+        assertThat(allowed).isBetween(5L, 10L);
+    }
+
+    @Test
+    void rejectsUnknownNamesAtAboutTheConfiguredFalsePositiveRate() {
+        List<String> usernames = IntStream.range(0, 10_000).mapToObj(i -> "user" + i).toList();
+        when(userRepository.streamAllUsernames()).thenReturn(usernames.stream());
+        UsernameFilter filter = filter(usernames.size(), 0.01);
+        filter.rebuild();
+
+        assertThat(usernames).allMatch(filter::mightContain);
+        long falsePositives = IntStream.range(0, 10_000)
+                .mapToObj(i -> "unknown" + i)
+                .filter(filter::mightContain)
+                .count();
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    private UsernameFilter filter(long expectedInsertions, double falsePositiveRate) {
+        return new UsernameFilter(userRepository, broadcaster, mock(PlatformTransactionManager.class),
+                expectedInsertions, falsePositiveRate, 5);
+    }
+}
@@ -0,0 +1,32 @@
+package com.master.user_management.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PasswordHashingServiceTest {
+
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(4);
+
+    @Test
+    void encodesABatchInOrderWhenItOutgrowsTheQueue() {
+        // One thread and a single queue slot: the batch has to wait for its own tasks rather than fail
+        PasswordHashingService service = new PasswordHashingService(encoder, new SimpleMeterRegistry(), 1, 1, 5000);
+        List<String> passwords = IntStream.range(0, 6).mapToObj(i -> "password" + i).toList();
+        try {
+            List<String> hashes = service.encodeAll(passwords, 4);
+
+            assertThat(hashes).hasSize(passwords.size());
+            for (int i = 0; i < passwords.size(); i++) {
+                assertThat(encoder.matches(passwords.get(i), hashes.get(i))).isTrue();
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.master.user_management.service;
+
+import com.master.user_management.entity.RefreshToken;
+import com.master.user_management.entity.User;
+import com.master.user_management.exception.InvalidTokenException;
+import com.master.user_management.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final RefreshTokenService refreshTokenService = new RefreshTokenService(refreshTokenRepository, Duration.ofDays(30));
+    private final Map<String, RefreshToken> tokensByHash = new HashMap<>();
+    private final User user = new User();
+
+    @BeforeEach
+    void setUp() {
+        user.setId(7L);
+        user.setUsername("kofi");
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken refreshToken = invocation.getArgument(0);
+            tokensByHash.put(refreshToken.getTokenHash(), refreshToken);
+            return refreshToken;
+        });
+        when(refreshTokenRepository.findByTokenHashForUpdate(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tokensByHash.get(invocation.<String>getArgument(0))));
+        when(refreshTokenRepository.findByTokenHash(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tokensByHash.get(invocation.<String>getArgument(0))));
+    }
+
+    @Test
+    void storesOnlyTheHashOfIssuedTokens() {
+        String rawToken = refreshTokenService.issue(user);
+
+        assertThat(tokensByHash).hasSize(1);
+        RefreshToken stored = tokensByHash.values().iterator().next();
+        assertThat(stored.getTokenHash()).hasSize(64).isNotEqualTo(rawToken);
+        assertThat(stored.getExpiresAt()).isEqualTo(stored.getCreatedAt().plusDays(30));
+        assertThat(refreshTokenService.issue(user)).isNotEqualTo(rawToken);
+    }
+
+    @Test
+    void rotatesATokenIntoANewOneAndRevokesTheOld() {
+        String rawToken = refreshTokenService.issue(user);
+        RefreshToken original = tokensByHash.values().iterator().next();
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(rawToken);
+
+        assertThat(rotation.user()).isSameAs(user);
+        assertThat(rotation.refreshToken()).isNotEqualTo(rawToken);
+        assertThat(original.isRevoked()).isTrue();
+        assertThat(refreshTokenService.rotate(rotation.refreshToken()).user()).isSameAs(user);
+        verify(refreshTokenRepository, never()).revokeAllForUser(anyLong(), any());
+    }
+
+    @Test
+    void revokesEveryTokenOfTheUserWhenARotatedTokenIsReused() {
+        String rawToken = refreshTokenService.issue(user);
+        refreshTokenService.rotate(rawToken);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(rawToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid refresh token.");
+        verify(refreshTokenRepository).revokeAllForUser(any(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void rejectsUnknownAndExpiredTokens() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("unknown"))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Invalid refresh token.");
+
+        String rawToken = refreshTokenService.issue(user);
+        RefreshToken stored = tokensByHash.values().iterator().next();
+        stored.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(rawToken))
+                .isInstanceOf(InvalidTokenException.class)
+                .hasMessage("Refresh token has expired.");
+        assertThat(stored.isRevoked()).isFalse();
+    }
+
+    @Test
+    void revokingMarksTheTokenSoItCanNoLongerRotate() {
+        String rawToken = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(rawToken);
+
+        assertThat(tokensByHash.values().iterator().next().isRevoked()).isTrue();
+        assertThatThrownBy(() -> refreshTokenService.rotate(rawToken)).isInstanceOf(InvalidTokenException.class);
+    }
+}
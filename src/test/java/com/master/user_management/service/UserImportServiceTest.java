@@ -0,0 +1,165 @@
+package com.master.user_management.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.master.user_management.cache.UserCache;
+import com.master.user_management.dto.response.BulkImportResult;
+import com.master.user_management.dto.response.ImportRowResult;
+import com.master.user_management.repository.UserRepository;
+import com.master.user_management.security.UsernameFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserChangeService userChangeService = mock(UserChangeService.class);
+    private final PasswordHashingService passwordHashingService =
+            new PasswordHashingService(new BCryptPasswordEncoder(4), new SimpleMeterRegistry(), 2, 8, 5000);
+    private final DataSource dataSource = mock(DataSource.class);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(statement.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void parsesQuotedCsvFieldsAndDefaultsTheRole() throws IOException {
+        BulkImportResult result = importCsv(1000, """
+                username,password,email,roleName
+                "o""brien",secret1,"obrien@example.com",
+
+                kofi,"se,cret2",kofi@example.com,ROLE_ADMIN
+                """);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isZero();
+        assertThat(recordedUsernames()).containsExactly("o\"brien", "kofi");
+    }
+
+    @Test
+    void rejectsOnlyTheRowWithAnUnknownCsvRole() throws IOException {
+        BulkImportResult result = importCsv(1000, """
+                username,password,email,roleName
+                kofi,secret1,kofi@example.com,ROLE_ROOT
+                ama,secret2,ama@example.com,ROLE_USER
+                """);
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejectedRows()).singleElement().satisfies(row -> {
+            assertThat(row.getRow()).isEqualTo(1);
+            assertThat(row.getUsername()).isEqualTo("kofi");
+            assertThat(row.getMessage()).contains("roleName must be one of");
+        });
+        assertThat(recordedUsernames()).containsExactly("ama");
+    }
+
+    @Test
+    void rejectsOnlyTheRowWithAnUnknownJsonRole() throws IOException {
+        BulkImportResult result = service(1000).importUsers(input("""
+                [{"username": "kofi", "password": "secret1", "email": "kofi@example.com", "roleName": "ROLE_ROOT"},
+                 {"username": "ama", "password": "secret2", "email": "ama@example.com", "roleName": "ROLE_USER"}]
+                """), UserImportService.Format.JSON);
+
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejectedRows()).extracting(ImportRowResult::getUsername).containsExactly("kofi");
+    }
+
+    @Test
+    void rejectsInvalidAndDuplicateRows() throws IOException {
+        when(userRepository.findExistingUsernames(Set.of("kofi", "ama", "kwesi"))).thenReturn(Set.of("kofi"));
+
+        BulkImportResult result = importCsv(1000, """
+                username,password,email
+                kofi,secret1,kofi@example.com
+                ama,secret2,ama@example.com
+                kwesi,secret3,ama@example.com
+                x,secret4,not-an-email
+                """);
+
+        assertThat(result.getProcessed()).isEqualTo(4);
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejectedRows()).extracting(ImportRowResult::getMessage).containsExactly(
+                "email must be a well-formed email address, username size must be between 3 and 50",
+                "Username already exists",
+                "Email already exists");
+    }
+
+    @Test
+    void listsRejectionsOnlyUpToTheLimit() throws IOException {
+        BulkImportResult result = importCsv(2, """
+                username,password,email
+                a,secret,a@example.com
+                b,secret,b@example.com
+                c,secret,c@example.com
+                d,secret,d@example.com
+                e,secret,e@example.com
+                """);
+
+        assertThat(result.getRejected()).isEqualTo(5);
+        assertThat(result.getRejectedRows()).hasSize(2);
+        assertThat(result.getOmittedRejectedRows()).isEqualTo(3);
+        verify(userChangeService, never()).recordCreated(any());
+    }
+
+    @Test
+    void endsTheImportOnMalformedJson() {
+        assertThatThrownBy(() -> service(1000).importUsers(input("[{\"username\": "), UserImportService.Format.JSON))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Malformed input at row 1");
+    }
+
+    private BulkImportResult importCsv(int maxRejectedRows, String csv) throws IOException {
+        return service(maxRejectedRows).importUsers(input(csv), UserImportService.Format.CSV);
+    }
+
+    private UserImportService service(int maxRejectedRows) {
+        return new UserImportService(userRepository, passwordHashingService, mock(UsernameFilter.class), mock(UserCache.class),
+                userChangeService, new ObjectMapper(), Validation.buildDefaultValidatorFactory().getValidator(), dataSource,
+                mock(PlatformTransactionManager.class), 500, 0, maxRejectedRows, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> recordedUsernames() {
+        ArgumentCaptor<List<String>> usernames = ArgumentCaptor.forClass(List.class);
+        verify(userChangeService).recordCreated(usernames.capture());
+        return usernames.getValue();
+    }
+
+    private static ByteArrayInputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,42 @@
+package com.master.user_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripsIds() {
+        for (long id : new long[]{0, 1, 42, Long.MAX_VALUE}) {
+            assertThat(CursorCodec.decode(CursorCodec.encode(id))).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void producesUrlSafeCursorsWithoutPadding() {
+        String cursor = CursorCodec.encode(Long.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThatThrownBy(() -> CursorCodec.decode("not base64!")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> CursorCodec.decode(encodeRaw("42"))).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> CursorCodec.decode(encodeRaw("id:abc"))).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+        assertThatThrownBy(() -> CursorCodec.decode(encodeRaw("id:"))).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static String encodeRaw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
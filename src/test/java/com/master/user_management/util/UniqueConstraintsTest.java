@@ -0,0 +1,45 @@
+package com.master.user_management.util;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UniqueConstraintsTest {
+
+    @Test
+    void mapsNamedConstraints() {
+        assertThat(UniqueConstraints.duplicateMessage(violation(UniqueConstraints.USERNAME, "duplicate key")))
+                .isEqualTo("Username already exists");
+        assertThat(UniqueConstraints.duplicateMessage(violation("UK_USERS_EMAIL", "duplicate key")))
+                .isEqualTo("Email already exists");
+    }
+
+    @Test
+    void fallsBackToTheKeyDetailForGeneratedConstraintNames() {
+        assertThat(UniqueConstraints.duplicateMessage(violation("uk_r43af9ap4edm43mmtq01oddj6",
+                "ERROR: duplicate key value violates unique constraint\n  Detail: Key (username)=(kofi) already exists.")))
+                .isEqualTo("Username already exists");
+        assertThat(UniqueConstraints.duplicateMessage(violation("uk_6dotkott2kjsp8vw4d0m25fb7",
+                "ERROR: duplicate key value violates unique constraint\n  Detail: Key (email)=(kofi@example.com) already exists.")))
+                .isEqualTo("Email already exists");
+    }
+
+    @Test
+    void ignoresOtherViolations() {
+        assertThat(UniqueConstraints.duplicateMessage(violation("fk_user_roles_user",
+                "ERROR: insert or update violates foreign key constraint\n  Detail: Key (user_id)=(7) is not present.")))
+                .isNull();
+        assertThat(UniqueConstraints.duplicateMessage(new DataIntegrityViolationException("not null violation")))
+                .isNull();
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName, String detail) {
+        SQLException sqlException = new SQLException(detail, "23505");
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", sqlException, constraintName));
+    }
+}
@@ -0,0 +1,40 @@
+package com.master.user_management.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VersionETagTest {
+
+    @Test
+    void formatsTheVersionAsAStrongTag() {
+        assertThat(VersionETag.of(3L)).isEqualTo("\"3\"");
+        assertThat(VersionETag.of(null)).isEqualTo("\"0\"");
+    }
+
+    @Test
+    void acceptsAnyVersionWithoutAConcreteTag() {
+        assertThat(VersionETag.parseIfMatch(null)).isNull();
+        assertThat(VersionETag.parseIfMatch(" ")).isNull();
+        assertThat(VersionETag.parseIfMatch(" * ")).isNull();
+    }
+
+    @Test
+    void parsesASingleTag() {
+        assertThat(VersionETag.parseIfMatch("\"5\"")).containsExactly(5L);
+        assertThat(VersionETag.parseIfMatch(VersionETag.of(7L))).containsExactly(7L);
+    }
+
+    @Test
+    void acceptsEveryVersionOfATagList() {
+        assertThat(VersionETag.parseIfMatch("\"4\", \"5\",\"6\"")).containsExactlyInAnyOrder(4L, 5L, 6L);
+    }
+
+    @Test
+    void dropsWeakAndForeignTags() {
+        assertThat(VersionETag.parseIfMatch("W/\"4\", \"abc\", \"5\"")).containsExactly(5L);
+        assertThat(VersionETag.parseIfMatch("W/\"4\"")).isEmpty();
+        assertThat(VersionETag.parseIfMatch("\"abc\"")).isEmpty();
+        assertThat(VersionETag.parseIfMatch("5")).isEmpty();
+    }
+}